@@ -0,0 +1,58 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.config.BankUsernamePwdAuthenticationProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    BankUsernamePwdAuthenticationProvider.authenticate for a valid login against the stub CustomerRepository,
+    with the verified credential cache on (repeat logins of HTTP Basic clients) and off (a BCrypt check every time).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AuthenticationProviderBenchmark {
+
+    @Param({"true", "false"})
+    private boolean credentialCache;
+
+    private AnnotationConfigWebApplicationContext context;
+
+    private BankUsernamePwdAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("bank.security.credential-cache.enabled", credentialCache));
+        provider = context.getBean(BankUsernamePwdAuthenticationProvider.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return provider.authenticate(
+                new UsernamePasswordAuthenticationToken(BenchmarkContext.EMAIL, BenchmarkContext.PASSWORD));
+    }
+}
@@ -0,0 +1,73 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.config.BankAuthenticationToken;
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Garbage produced per authentication by building the authorities of a customer and checking a role, the way
+    BankUsernamePwdAuthenticationProvider used to (a new SimpleGrantedAuthority list, copied again by the token,
+    and string comparisons) against the AuthorityRegistry / AuthoritySet path.
+
+    Run with -prof gc and compare gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AuthorityAllocationBenchmark {
+
+    private final List<String> authorityNames = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private final AuthoritySet required = AuthorityRegistry.setOfNames(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+    @Benchmark
+    public void simpleGrantedAuthorities(Blackhole blackhole) {
+        List<GrantedAuthority> authorities = new ArrayList<>(authorityNames.size());
+        for (String authorityName : authorityNames) {
+            authorities.add(new SimpleGrantedAuthority(authorityName));
+        }
+        UsernamePasswordAuthenticationToken token =
+                new UsernamePasswordAuthenticationToken("happy@example.com", "12345", authorities);
+        blackhole.consume(token);
+        blackhole.consume(hasAnyRole(token.getAuthorities(), "ROLE_USER", "ROLE_ADMIN"));
+    }
+
+    @Benchmark
+    public void registeredAuthorities(Blackhole blackhole) {
+        BankAuthenticationToken token = new BankAuthenticationToken("happy@example.com", "12345",
+                AuthorityRegistry.setOfNames(authorityNames));
+        blackhole.consume(token);
+        blackhole.consume(token.getAuthoritySet().containsAny(required));
+    }
+
+    private static boolean hasAnyRole(Iterable<GrantedAuthority> authorities, String... roles) {
+        for (GrantedAuthority authority : authorities) {
+            for (String role : roles) {
+                if (role.equals(authority.getAuthority())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
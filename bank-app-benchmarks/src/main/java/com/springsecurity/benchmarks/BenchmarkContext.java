@@ -0,0 +1,139 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.config.BankTokenService;
+import com.springsecurity.config.BankUsernamePwdAuthenticationProvider;
+import com.springsecurity.config.CustomerPrincipalLoader;
+import com.springsecurity.config.FilterTimingPostProcessor;
+import com.springsecurity.config.LoginAttemptTracker;
+import com.springsecurity.config.PasswordHashingExecutor;
+import com.springsecurity.config.ProjectSecurityConfig;
+import com.springsecurity.config.SecurityPolicyConfig;
+import com.springsecurity.config.RateLimiter;
+import com.springsecurity.config.VerifiedCredentialCache;
+import com.springsecurity.repositories.CustomerRepository;
+import com.springsecurity.repositories.CustomerRepository.CredentialsRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Web application context with the real security configuration of bank-app and no database.
+    CustomerRepository is a stub that knows a single customer and the endpoints answer with an empty body,
+    so what is measured is the security filter chain and the authentication provider.
+ */
+@Configuration
+@EnableWebMvc
+@EnableWebSecurity
+@Import({ProjectSecurityConfig.class, SecurityPolicyConfig.class, BankTokenService.class, RateLimiter.class, PasswordHashingExecutor.class,
+        VerifiedCredentialCache.class, LoginAttemptTracker.class, CustomerPrincipalLoader.class,
+        BankUsernamePwdAuthenticationProvider.class, FilterTimingPostProcessor.class, BenchmarkContext.StubEndpoints.class})
+public class BenchmarkContext {
+
+    public static final String EMAIL = "happy@example.com";
+
+    public static final String PASSWORD = "12345";
+
+    private static final String ENCODED_PASSWORD = new BCryptPasswordEncoder().encode(PASSWORD);
+
+    public static AnnotationConfigWebApplicationContext start(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        // benchmarks send far more requests per client than the limits allow
+        defaults.put("bank.security.rate-limit.enabled", "false");
+        defaults.putAll(properties);
+
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", defaults));
+        context.register(BenchmarkContext.class);
+        context.refresh();
+        return context;
+    }
+
+    // as in Spring Boot, so @Value placeholders are also resolved for bean post processors
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public static DefaultConversionService conversionService() {
+        return new DefaultConversionService();
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public CustomerRepository customerRepository() {
+        List<CredentialsRow> rows = List.of(row("ROLE_USER"), row("ROLE_ADMIN"));
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findCredentialsByEmail":
+                            return EMAIL.equals(args[0]) ? rows : Collections.emptyList();
+                        case "toString":
+                            return "StubCustomerRepository";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static CredentialsRow row(String authority) {
+        return new CredentialsRow() {
+            @Override
+            public int getId() {
+                return 1;
+            }
+
+            @Override
+            public String getEmail() {
+                return EMAIL;
+            }
+
+            @Override
+            public String getPwd() {
+                return ENCODED_PASSWORD;
+            }
+
+            @Override
+            public String getAuthority() {
+                return authority;
+            }
+        };
+    }
+
+    @RestController
+    static class StubEndpoints {
+
+        @RequestMapping({"/myAccount", "/myBalance", "/myLoans", "/myCards", "/myTransactions/export",
+                "/myDashboard", "/user", "/contact", "/notices"})
+        public String respond() {
+            return "{}";
+        }
+    }
+}
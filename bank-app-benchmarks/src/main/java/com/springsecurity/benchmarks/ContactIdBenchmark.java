@@ -0,0 +1,45 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.config.SortableIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Throughput of contact id generation: the new Random per call ContactController used to do against
+    SortableIdGenerator, which shares one AtomicLong between all threads and runs ahead of the clock once the
+    4096 ids of a millisecond are used up. Compare a single thread with contention, e.g.
+
+        mvn package exec:exec -Djmh.args="ContactIdBenchmark -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContactIdBenchmark {
+
+    private final SortableIdGenerator generator = new SortableIdGenerator(1);
+
+    @Benchmark
+    public String randomContactId() {
+        Random random = new Random();
+        int ranNum = random.nextInt(999999999 - 9999) + 9999;
+        return "SR" + ranNum;
+    }
+
+    @Benchmark
+    public String sortableContactId() {
+        return generator.nextContactId();
+    }
+}
@@ -0,0 +1,84 @@
+package com.springsecurity.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+
+/*
+    One request through the whole FilterChainProxy of ProjectSecurityConfig (and DispatcherServlet with an empty
+    endpoint), per endpoint, as an HTTP Basic client with ROLE_USER and ROLE_ADMIN.
+    /myLoans requires ROOT and is therefore answered with 403.
+    filterTiming=true measures the overhead of the per filter timers (bank.security.filter-timing.enabled).
+    preflight is a browser CORS preflight for the endpoint, answered by CorsPolicyFilter before the other filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class FilterChainBenchmark {
+
+    @Param({"/myAccount", "/myBalance", "/myLoans", "/myCards", "/user", "/contact", "/notices"})
+    private String endpoint;
+
+    @Param({"false", "true"})
+    private boolean filterTiming;
+
+    private AnnotationConfigWebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("bank.security.filter-timing.enabled", filterTiming));
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(new DelegatingFilterProxy("springSecurityFilterChain", context))
+                .build();
+        authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (BenchmarkContext.EMAIL + ":" + BenchmarkContext.PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult request() throws Exception {
+        return mockMvc.perform(get(endpoint).header(HttpHeaders.AUTHORIZATION, authorization)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult preflight() throws Exception {
+        return mockMvc.perform(options(endpoint)
+                .header(HttpHeaders.ORIGIN, "http://localhost:4200")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization, content-type")).andReturn();
+    }
+}
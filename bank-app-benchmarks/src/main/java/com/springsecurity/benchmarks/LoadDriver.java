@@ -0,0 +1,310 @@
+package com.springsecurity.benchmarks;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    Multi-threaded HTTP load driver for bank-app running with the loadtest profile. Every thread picks an endpoint
+    and a customer, sends the request with HTTP Basic credentials and records the latency per endpoint.
+    Prints throughput, status codes and p50/p99/p999 latency per endpoint.
+
+    Options (name=value, a leading -- is allowed):
+        url            base url, default http://localhost:8080
+        threads        concurrent clients, default 16
+        duration       measured seconds, default 60
+        warmup         seconds before measuring, default 10
+        rate           requests per second per thread, 0 (default) sends the next request as soon as the previous
+                       one finished. With a rate the latency is measured from the intended start time, so stalls
+                       of the server are not hidden by the driver waiting (coordinated omission).
+        customers      customer ids to pick from, default 10000 (bank.loadtest.customers of the server)
+        hot-customers  80% of the requests go to this many customers, default 1000
+        password       bank.loadtest.password of the server, default 12345
+        endpoints      comma separated, default /myAccount,/myBalance,/myLoans,/myCards,/myDashboard,/user,/notices,/contact
+        metrics-customer  id of an ADMIN customer of the server. When set, the live threads and used heap of the
+                       server are read from /actuator/metrics every second while measuring and their peaks printed.
+
+    Platform against virtual request threads with a slow database, thousands of clients and the pool out of the way:
+        server  --spring.profiles.active=loadtest --bank.loadtest.db-latency-ms=50 \
+                --spring.datasource.hikari.maximum-pool-size=2000 --server.tomcat.threads.max=200 \
+                [--bank.threads.virtual=true, on Java 21]
+        driver  threads=2000 customers=... metrics-customer=<admin id>
+    after a short run with a few threads over the same customers, so their passwords are already verified and
+    cached; thousands of first logins at once only measure the BCrypt pool.
+    Heap only covers virtual thread stacks; compare the resident size of the server process (ps -o rss) as well,
+    platform thread stacks are native memory.
+ */
+public class LoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final URI baseUri;
+
+    private final int threads;
+
+    private final long durationNanos;
+
+    private final long warmupNanos;
+
+    private final double rate;
+
+    private final int customers;
+
+    private final int hotCustomers;
+
+    private final String password;
+
+    private final List<String> endpoints;
+
+    private final int metricsCustomer;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadDriver(Map<String, String> options) {
+        this.baseUri = URI.create(options.getOrDefault("url", "http://localhost:8080"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        this.durationNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))).toNanos();
+        this.warmupNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))).toNanos();
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        this.customers = Integer.parseInt(options.getOrDefault("customers", "10000"));
+        this.hotCustomers = Math.min(customers, Integer.parseInt(options.getOrDefault("hot-customers", "1000")));
+        this.password = options.getOrDefault("password", "12345");
+        this.endpoints = List.of(options.getOrDefault("endpoints",
+                "/myAccount,/myBalance,/myLoans,/myCards,/myDashboard,/user,/notices,/contact").split(","));
+        this.metricsCustomer = Integer.parseInt(options.getOrDefault("metrics-customer", "0"));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    void run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long end = measureFrom + durationNanos;
+        List<Worker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, measureFrom, end);
+            workers.add(worker);
+            worker.start();
+        }
+        ServerMetricsSampler sampler = null;
+        if (metricsCustomer > 0) {
+            sampler = new ServerMetricsSampler(measureFrom, end);
+            sampler.start();
+        }
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        report(workers);
+        if (sampler != null) {
+            sampler.join();
+            System.out.printf("server: peak live threads %.0f, peak used heap %.1f MB (%d samples)%n",
+                    sampler.peakThreads, sampler.peakHeapBytes / (1024.0 * 1024.0), sampler.samples);
+        }
+    }
+
+    private void report(List<Worker> workers) {
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%d threads, %.0f s measured%s%n", threads, seconds,
+                rate > 0 ? String.format(", %.1f requests/s per thread", rate) : "");
+        System.out.printf("%-22s %10s %10s %10s %10s %10s %10s  %s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "status codes");
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        for (int e = 0; e < endpoints.size(); e++) {
+            Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+            Map<Integer, Long> statuses = new LinkedHashMap<>();
+            for (Worker worker : workers) {
+                histogram.add(worker.latencies[e]);
+                worker.statuses.get(e).forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            }
+            total.add(histogram);
+            print(endpoints.get(e), histogram, seconds, statuses.toString());
+        }
+        print("total", total, seconds, "");
+    }
+
+    private static void print(String name, Histogram histogram, double seconds, String statuses) {
+        System.out.printf("%-22s %10d %10.1f %10.2f %10.2f %10.2f %10.2f  %s%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0, statuses);
+    }
+
+    private HttpRequest request(String endpoint, int customerId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(endpoint)).timeout(Duration.ofSeconds(30));
+        switch (endpoint) {
+            case "/notices":
+                return builder.GET().build();
+            case "/contact":
+                return builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"contactName\":\"Customer " + customerId +
+                                "\",\"contactEmail\":\"customer" + customerId + "@loadtest.bank\"," +
+                                "\"subject\":\"Load test\",\"message\":\"Generated by LoadDriver\"}"))
+                        .build();
+            case "/user":
+                return builder.header("Authorization", basic(customerId)).GET().build();
+            default:
+                return builder.header("Authorization", basic(customerId))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"id\":" + customerId + "}"))
+                        .build();
+        }
+    }
+
+    private String basic(int customerId) {
+        String credentials = "customer" + customerId + "@loadtest.bank:" + password;
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+        Polls the server's own metrics once a second during the measured period, a sample that fails is skipped.
+     */
+    private class ServerMetricsSampler extends Thread {
+
+        private final long measureFrom;
+
+        private final long end;
+
+        private double peakThreads;
+
+        private double peakHeapBytes;
+
+        private int samples;
+
+        ServerMetricsSampler(long measureFrom, long end) {
+            super("load-driver-metrics");
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long wait = measureFrom - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000);
+                }
+                while (System.nanoTime() < end) {
+                    try {
+                        double threads = metric("jvm.threads.live");
+                        double heap = metric("jvm.memory.used?tag=area:heap");
+                        peakThreads = Math.max(peakThreads, threads);
+                        peakHeapBytes = Math.max(peakHeapBytes, heap);
+                        samples++;
+                    } catch (IOException | RuntimeException e) {
+                        // an overloaded server may not answer in time, the next sample will
+                    }
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private double metric(String name) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/metrics/" + name))
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Authorization", basic(metricsCustomer))
+                    .GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher value = METRIC_VALUE.matcher(response.body());
+            if (response.statusCode() != 200 || !value.find()) {
+                throw new IOException(name + " answered " + response.statusCode());
+            }
+            return Double.parseDouble(value.group(1));
+        }
+    }
+
+    private class Worker extends Thread {
+
+        private final SplittableRandom random;
+
+        private final long measureFrom;
+
+        private final long end;
+
+        private final Histogram[] latencies = new Histogram[endpoints.size()];
+
+        private final List<Map<Integer, Long>> statuses = new ArrayList<>(endpoints.size());
+
+        Worker(int index, long measureFrom, long end) {
+            super("load-driver-" + index);
+            this.random = new SplittableRandom(index);
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new Histogram(MAX_LATENCY_MICROS, 3);
+                statuses.add(new HashMap<>());
+            }
+        }
+
+        @Override
+        public void run() {
+            long interval = rate > 0 ? (long) (1e9 / rate) : 0;
+            long next = System.nanoTime();
+            while (true) {
+                long intendedStart = interval > 0 ? next : System.nanoTime();
+                if (intendedStart >= end) {
+                    return;
+                }
+                if (interval > 0) {
+                    next += interval;
+                    long sleep = intendedStart - System.nanoTime();
+                    if (sleep > 0) {
+                        try {
+                            Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+                int endpoint = random.nextInt(endpoints.size());
+                int customerId = 1 + (random.nextInt(10) < 8 ? random.nextInt(hotCustomers) : random.nextInt(customers));
+                int status;
+                try {
+                    status = client.send(request(endpoints.get(endpoint), customerId),
+                            HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // connection failures and timeouts show up as status -1
+                    status = -1;
+                }
+                long finished = System.nanoTime();
+                if (intendedStart >= measureFrom) {
+                    latencies[endpoint].recordValue(Math.min(MAX_LATENCY_MICROS, (finished - intendedStart) / 1000));
+                    statuses.get(endpoint).merge(status, 1L, Long::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.springsecurity.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.bankapp.BankAppApplication;
+import com.springsecurity.repositories.AccountTransactionsRepository;
+import com.springsecurity.repositories.AccountsRepository;
+import com.springsecurity.repositories.CardsRepository;
+import com.springsecurity.repositories.CustomerRepository;
+import com.springsecurity.repositories.LoanRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.QueryHint;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Loading and serializing the response of the customer-facing endpoints against the loadtest H2 database:
+    "entity" runs the entity JPQL the repositories derived before they returned views, "view" runs the
+    constructor expression and hints of the repositories' @Query. Both go through the same EntityManager, so the
+    difference is the persistence context work and the eager Customer.authorities. Each invocation runs in its
+    own transaction like the controllers (read-only except /user) and is serialized after it ended.
+    Run with -prof gc to compare the allocation per request, e.g.
+
+        mvn package exec:exec -Djmh.args="ProjectionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    // loadtest customer with an account, cards, loans and transactions
+    private static final int CUSTOMER_ID = 72;
+
+    private static final String EMAIL = "customer72@loadtest.bank";
+
+    private static final Date START_OF_TIME = new Date(0);
+
+    private static final Date END_OF_TIME = new Date(253402214400000L);
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"entity", "view"})
+    private String model;
+
+    private ConfigurableApplicationContext context;
+
+    private EntityManager entityManager;
+
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnly;
+
+    private TransactionTemplate readWrite;
+
+    private Endpoint user;
+
+    private Endpoint account;
+
+    private Endpoint balance;
+
+    private Endpoint loans;
+
+    private Endpoint cards;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("loadtest")
+                // arguments and not default properties, which application-loadtest.properties would override;
+                // the security configuration needs a web application context, nothing is sent to the port
+                .run("--server.port=0", "--bank.loadtest.customers=1000", "--spring.jpa.open-in-view=false");
+        // the transaction bound EntityManager proxy, as used by the repositories
+        entityManager = context.getBean(EntityManager.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // LoginController is not @Transactional, its session is not read-only
+        readWrite = new TransactionTemplate(transactionManager);
+
+        boolean entities = "entity".equals(model);
+        user = entities
+                ? new Endpoint("select c from Customer c where c.email = ?1")
+                : new Endpoint(CustomerRepository.class.getMethod("findByEmail", String.class));
+        account = entities
+                ? new Endpoint("select a from Accounts a where a.customerId = ?1")
+                : new Endpoint(AccountsRepository.class.getMethod("findByCustomerId", int.class));
+        balance = entities
+                ? new Endpoint("select t from AccountTransactions t where t.customerId = :customerId " +
+                        "and t.transactionDt >= :from and (t.transactionDt < :beforeDt or " +
+                        "(t.transactionDt = :beforeDt and t.transactionId < :beforeId)) " +
+                        "order by t.transactionDt desc, t.transactionId desc")
+                : new Endpoint(findMethod(AccountTransactionsRepository.class, "findPageByCustomerId"));
+        loans = entities
+                ? new Endpoint("select l from Loans l where l.customerId = ?1 order by l.startDt desc")
+                : new Endpoint(LoanRepository.class.getMethod("findByCustomerIdOrderByStartDtDesc", int.class));
+        cards = entities
+                ? new Endpoint("select c from Cards c where c.customerId = ?1")
+                : new Endpoint(CardsRepository.class.getMethod("findByCustomerId", int.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return json(readWrite.execute(status -> user.query().setParameter(1, EMAIL).getResultList().get(0)));
+    }
+
+    @Benchmark
+    public byte[] account() throws JsonProcessingException {
+        return json(readOnly.execute(status -> account.query().setParameter(1, CUSTOMER_ID).getSingleResult()));
+    }
+
+    @Benchmark
+    public byte[] balance() throws JsonProcessingException {
+        // one extra row, as BalanceController asks for
+        return json(readOnly.execute(status -> balance.query()
+                .setParameter("customerId", CUSTOMER_ID)
+                .setParameter("from", START_OF_TIME)
+                .setParameter("beforeDt", END_OF_TIME)
+                .setParameter("beforeId", "")
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public byte[] loans() throws JsonProcessingException {
+        return json(readOnly.execute(status -> loans.query().setParameter(1, CUSTOMER_ID).getResultList()));
+    }
+
+    @Benchmark
+    public byte[] cards() throws JsonProcessingException {
+        return json(readOnly.execute(status -> cards.query().setParameter(1, CUSTOMER_ID).getResultList()));
+    }
+
+    private byte[] json(Object body) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private static Method findMethod(Class<?> repository, String name) {
+        for (Method method : repository.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(repository.getSimpleName() + "." + name);
+    }
+
+    private class Endpoint {
+
+        private final String jpql;
+
+        private final QueryHint[] hints;
+
+        Endpoint(String jpql) {
+            this.jpql = jpql;
+            this.hints = new QueryHint[0];
+        }
+
+        Endpoint(Method repositoryMethod) {
+            this.jpql = repositoryMethod.getAnnotation(Query.class).value();
+            this.hints = repositoryMethod.getAnnotation(QueryHints.class).value();
+        }
+
+        TypedQuery<Object> query() {
+            TypedQuery<Object> query = entityManager.createQuery(jpql, Object.class);
+            for (QueryHint hint : hints) {
+                query.setHint(hint.name(), hint.value());
+            }
+            return query;
+        }
+    }
+}
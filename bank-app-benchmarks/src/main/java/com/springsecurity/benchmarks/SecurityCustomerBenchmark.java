@@ -0,0 +1,38 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.model.SecurityCustomer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Mapping the authority names of a loaded customer to the GrantedAuthority collection of its SecurityCustomer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SecurityCustomerBenchmark {
+
+    private final CustomerPrincipal principal = new CustomerPrincipal(1, BenchmarkContext.EMAIL, "{bcrypt}",
+            List.of("ROLE_USER", "ROLE_ADMIN"));
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authorities() {
+        return new SecurityCustomer(principal).getAuthorities();
+    }
+}
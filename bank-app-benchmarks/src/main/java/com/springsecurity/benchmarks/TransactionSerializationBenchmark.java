@@ -0,0 +1,62 @@
+package com.springsecurity.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springsecurity.model.AccountTransactionView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Jackson serialization of the AccountTransactionView list returned by /myBalance, with the ObjectMapper settings
+    Spring Boot applies by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TransactionSerializationBenchmark {
+
+    @Param({"20", "200", "2000"})
+    private int transactionCount;
+
+    private ObjectMapper objectMapper;
+
+    private List<AccountTransactionView> transactions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        transactions = new ArrayList<>(transactionCount);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < transactionCount; i++) {
+            transactions.add(new AccountTransactionView(String.format("%019d", i), 186576453L, 1,
+                    new Date(now - i * 3_600_000L), "Coffee Shop", i % 3 == 0 ? "Deposit" : "Withdrawal",
+                    30 + i % 500, 34500 - i, "2021-01-01"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+}
@@ -0,0 +1,134 @@
+package com.springsecurity.benchmarks;
+
+import com.springsecurity.config.UrlAuthorizationTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
+import org.springframework.security.web.access.expression.ExpressionBasedFilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.access.expression.WebExpressionVoter;
+import org.springframework.security.web.access.intercept.FilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Authorization of one request with the antMatchers chain (ant matchers plus SpEL voter, as built by
+    authorizeRequests()) against the compiled UrlAuthorizationTable, while the number of rules grows.
+    The request hits the last declared rule, which is the worst case for the chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UrlAuthorizationBenchmark {
+
+    @Param({"9", "50", "200", "1000"})
+    private int ruleCount;
+
+    private UrlAuthorizationTable table;
+
+    private FilterInvocationSecurityMetadataSource metadataSource;
+
+    private AccessDecisionManager accessDecisionManager;
+
+    private FilterInvocation invocation;
+
+    private String path;
+
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        UrlAuthorizationTable.Builder builder = UrlAuthorizationTable.builder()
+                .hasRole("/myAccount", "USER")
+                .hasRole("/myLoans", "ROOT")
+                .authenticated("/myCards")
+                .authenticated("/user")
+                .hasAnyRole("/myBalance", "USER", "ADMIN")
+                .hasAnyRole("/myTransactions/export", "USER", "ADMIN")
+                .authenticated("/myDashboard")
+                .permitAll("/contact");
+        for (int i = 9; i < ruleCount; i++) {
+            builder.hasAnyRole("/api/v1/resource" + i + "/*", "USER", "ADMIN");
+        }
+        path = "/api/v1/resource" + (ruleCount - 1) + "/42";
+        if (ruleCount <= 9) {
+            builder.hasAnyRole("/notices", "USER", "ADMIN");
+            path = "/notices";
+        }
+        table = builder.build();
+
+        LinkedHashMap<RequestMatcher, Collection<ConfigAttribute>> requestMap = new LinkedHashMap<>();
+        for (UrlAuthorizationTable.Rule rule : table.getRules()) {
+            requestMap.put(new AntPathRequestMatcher(rule.getPattern()), SecurityConfig.createList(expression(rule)));
+        }
+        DefaultWebSecurityExpressionHandler expressionHandler = new DefaultWebSecurityExpressionHandler();
+        metadataSource = new ExpressionBasedFilterInvocationSecurityMetadataSource(requestMap, expressionHandler);
+        WebExpressionVoter voter = new WebExpressionVoter();
+        voter.setExpressionHandler(expressionHandler);
+        accessDecisionManager = new AffirmativeBased(List.of(voter));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        invocation = new FilterInvocation(request, new MockHttpServletResponse(), new MockFilterChain());
+        authentication = new UsernamePasswordAuthenticationToken("happy@example.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    @Benchmark
+    public boolean expressionChain() {
+        Collection<ConfigAttribute> attributes = metadataSource.getAttributes(invocation);
+        try {
+            accessDecisionManager.decide(authentication, invocation, attributes);
+            return true;
+        } catch (AccessDeniedException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean compiledTable() {
+        return table.isAllowed(path, authentication);
+    }
+
+    private static String expression(UrlAuthorizationTable.Rule rule) {
+        switch (rule.getAccess()) {
+            case PERMIT_ALL:
+                return "permitAll";
+            case AUTHENTICATED:
+                return "authenticated";
+            default:
+                StringJoiner authorities = new StringJoiner("','", "hasAnyAuthority('", "')");
+                rule.getAuthorities().forEach(authorities::add);
+                return authorities.toString();
+        }
+    }
+}
@@ -5,12 +5,15 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.ComponentScans;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @ComponentScans({
-		@ComponentScan("com.springsecurity.controllers"),
-		@ComponentScan("com.springsecurity.config")
+		@ComponentScan("com.springsecurity.config"),
+		@ComponentScan("com.springsecurity.repositories"),
+		@ComponentScan("com.springsecurity.loadtest")
 })
 @EnableJpaRepositories("com.springsecurity.repositories")
 @EntityScan("com.springsecurity.model")
@@ -20,4 +23,22 @@ public class BankAppApplication {
 		SpringApplication.run(BankAppApplication.class, args);
 	}
 
+	/*
+		Servlet endpoints (Spring MVC + JPA), the default.
+	 */
+	@Configuration
+	@Profile("!reactive")
+	@ComponentScan("com.springsecurity.controllers")
+	static class ServletEndpoints {
+	}
+
+	/*
+		The same endpoints on WebFlux + R2DBC, see application-reactive.properties.
+	 */
+	@Configuration
+	@Profile("reactive")
+	@ComponentScan("com.springsecurity.reactive")
+	static class ReactiveEndpoints {
+	}
+
 }
@@ -0,0 +1,249 @@
+package com.springsecurity.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Optional (bank.db.pool.adaptive.enabled=true) controller that resizes the Hikari pools between min-size and
+    max-size. Every second it samples the threads waiting for a connection and the active connections of each pool,
+    and at the end of every interval it looks at the mean connection wait (hikaricp.connections.acquire) and the
+    mean hold time (hikaricp.connections.usage, which grows with database latency) of that interval:
+
+        hold above max-hold-ms                   shrink by step, the database is the bottleneck and more
+                                                 connections would only add load to it
+        wait above target-wait-ms                grow by step, requests queue for the pool
+        no wait, at most half the pool active    shrink by step
+
+    Sizes are changed through HikariConfigMXBean. minimumIdle is set to min-size so that connections above the
+    current need are retired by Hikari after spring.datasource.hikari.idle-timeout. Every change is logged and
+    counted in bank.db.pool.resizes.
+ */
+@Component
+@ConditionalOnProperty(name = "bank.db.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final int step;
+
+    private final double targetWaitMillis;
+
+    private final double maxHoldMillis;
+
+    private final int intervalSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectProvider<DataSource> dataSources;
+
+    private final List<Pool> pools = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public AdaptivePoolSizer(@Value("${bank.db.pool.adaptive.min-size:4}") int minSize,
+                             @Value("${bank.db.pool.adaptive.max-size:64}") int maxSize,
+                             @Value("${bank.db.pool.adaptive.step:2}") int step,
+                             @Value("${bank.db.pool.adaptive.target-wait-ms:5}") double targetWaitMillis,
+                             @Value("${bank.db.pool.adaptive.max-hold-ms:500}") double maxHoldMillis,
+                             @Value("${bank.db.pool.adaptive.interval-seconds:10}") int intervalSeconds,
+                             MeterRegistry meterRegistry,
+                             ObjectProvider<DataSource> dataSources) {
+        if (minSize < 1 || maxSize < minSize || step < 1 || intervalSeconds < 1) {
+            throw new IllegalArgumentException("Invalid bank.db.pool.adaptive settings: min-size " + minSize
+                    + ", max-size " + maxSize + ", step " + step + ", interval-seconds " + intervalSeconds);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.targetWaitMillis = targetWaitMillis;
+        this.maxHoldMillis = maxHoldMillis;
+        this.intervalSeconds = intervalSeconds;
+        this.meterRegistry = meterRegistry;
+        this.dataSources = dataSources;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            if (hikari != null) {
+                pools.add(new Pool(hikari));
+                return;
+            }
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            if (routing != null) {
+                for (DataSource target : routing.getTargetDataSources()) {
+                    HikariDataSource pool = DataSourceUnwrapper.unwrap(target, HikariDataSource.class);
+                    if (pool != null) {
+                        pools.add(new Pool(pool));
+                    }
+                }
+            }
+        });
+        if (pools.isEmpty()) {
+            log.warn("bank.db.pool.adaptive.enabled is set but there is no Hikari pool to resize");
+            return;
+        }
+        for (Pool pool : pools) {
+            HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+            config.setMaximumPoolSize(Math.max(minSize, Math.min(maxSize, config.getMaximumPoolSize())));
+            config.setMinimumIdle(minSize);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    void sample() {
+        for (Pool pool : pools) {
+            try {
+                pool.sample();
+            } catch (RuntimeException e) {
+                log.warn("Could not sample pool {}", pool.name, e);
+            }
+        }
+    }
+
+    /*
+        Size for the next interval given the current size and what was observed during the last one;
+        NaN for a mean means the metric is not published.
+     */
+    int nextSize(int size, double waitMillis, int maxWaiting, double holdMillis, int maxActive) {
+        if (holdMillis > maxHoldMillis) {
+            return Math.max(minSize, size - step);
+        }
+        boolean waited = Double.isNaN(waitMillis) ? maxWaiting > 0 : waitMillis > targetWaitMillis;
+        if (waited) {
+            return Math.min(maxSize, size + step);
+        }
+        if (maxWaiting == 0 && maxActive * 2 <= size) {
+            return Math.max(minSize, size - step);
+        }
+        return size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private class Pool {
+
+        private final HikariDataSource dataSource;
+
+        private final String name;
+
+        private final Mean wait = new Mean("hikaricp.connections.acquire");
+
+        private final Mean hold = new Mean("hikaricp.connections.usage");
+
+        private int ticks;
+
+        private int maxWaiting;
+
+        private int maxActive;
+
+        private Pool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.name = dataSource.getPoolName();
+        }
+
+        void sample() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                // Hikari starts a pool on its first connection
+                return;
+            }
+            maxWaiting = Math.max(maxWaiting, pool.getThreadsAwaitingConnection());
+            maxActive = Math.max(maxActive, pool.getActiveConnections());
+            if (++ticks < intervalSeconds) {
+                return;
+            }
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            int size = config.getMaximumPoolSize();
+            double waitMillis = wait.next(name);
+            double holdMillis = hold.next(name);
+            int next = nextSize(size, waitMillis, maxWaiting, holdMillis, maxActive);
+            if (next != size) {
+                config.setMaximumPoolSize(next);
+                log.info("Pool {} resized from {} to {}: mean wait {} ms, mean hold {} ms, peak {} active, peak {} waiting",
+                        name, size, next, String.format("%.1f", waitMillis), String.format("%.1f", holdMillis),
+                        maxActive, maxWaiting);
+                Counter.builder("bank.db.pool.resizes")
+                        .description("Pool size changes made by AdaptivePoolSizer")
+                        .tag("pool", name)
+                        .tag("direction", next > size ? "grow" : "shrink")
+                        .register(meterRegistry)
+                        .increment();
+            }
+            ticks = 0;
+            maxWaiting = 0;
+            maxActive = 0;
+        }
+    }
+
+    /*
+        Mean of a Hikari timer over the samples recorded since the previous call.
+     */
+    private class Mean {
+
+        private final String meterName;
+
+        private long count;
+
+        private double totalMillis;
+
+        private Mean(String meterName) {
+            this.meterName = meterName;
+        }
+
+        double next(String pool) {
+            Timer timer = meterRegistry.find(meterName).tag("pool", pool).timer();
+            if (timer == null) {
+                return Double.NaN;
+            }
+            long newCount = timer.count();
+            double newTotal = timer.totalTime(TimeUnit.MILLISECONDS);
+            long deltaCount = newCount - count;
+            double deltaTotal = newTotal - totalMillis;
+            if (deltaCount < 0) {
+                // step based registries restart their counts every step
+                deltaCount = newCount;
+                deltaTotal = newTotal;
+            }
+            count = newCount;
+            totalMillis = newTotal;
+            return deltaCount == 0 ? 0 : deltaTotal / deltaCount;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthoritySet;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/*
+    Authenticated token carrying the AuthoritySet of the customer. AbstractAuthenticationToken copies the
+    authorities it is given into a new list, this token hands out the shared, immutable list of the set instead.
+ */
+public class BankAuthenticationToken extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = 7203318456021967715L;
+
+    private final Object principal;
+
+    private Object credentials;
+
+    private final AuthoritySet authoritySet;
+
+    public BankAuthenticationToken(Object principal, Object credentials, AuthoritySet authoritySet) {
+        super(null);
+        this.principal = principal;
+        this.credentials = credentials;
+        this.authoritySet = authoritySet;
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authoritySet.asList();
+    }
+
+    public AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return credentials;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Cannot set this token to trusted, it is created authenticated");
+        }
+        super.setAuthenticated(false);
+    }
+
+    @Override
+    public void eraseCredentials() {
+        super.eraseCredentials();
+        credentials = null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && obj instanceof BankAuthenticationToken
+                && authoritySet.equals(((BankAuthenticationToken) obj).authoritySet);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + authoritySet.hashCode();
+    }
+}
@@ -0,0 +1,167 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/*
+    Issues and verifies the compact HMAC-SHA256 tokens used by the opt-in stateless mode
+    (bank.security.token.enabled=true).
+
+    Token layout: <key id>.<base64url payload>.<base64url signature>
+    Payload:      customer id, email, expiry (epoch seconds) and comma separated authorities, one per line.
+
+    Keys are configured as bank.security.token.keys=<key id>:<base64 secret>,... and new tokens are signed
+    with bank.security.token.active-key. To rotate, add the new key, make it active and drop the old key
+    once every token signed with it has expired.
+ */
+@Component
+public class BankTokenService {
+
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean enabled;
+
+    private final Map<String, SecretKeySpec> keys;
+
+    private final String activeKeyId;
+
+    private final long ttlSeconds;
+
+    private final Clock clock;
+
+    @Autowired
+    public BankTokenService(@Value("${bank.security.token.enabled:false}") boolean enabled,
+                            @Value("${bank.security.token.keys:}") List<String> keys,
+                            @Value("${bank.security.token.active-key:}") String activeKeyId,
+                            @Value("${bank.security.token.ttl-seconds:900}") long ttlSeconds) {
+        this(enabled, keys, activeKeyId, ttlSeconds, Clock.systemUTC());
+    }
+
+    BankTokenService(boolean enabled, List<String> keys, String activeKeyId, long ttlSeconds, Clock clock) {
+        this.enabled = enabled;
+        this.keys = parseKeys(keys);
+        this.activeKeyId = activeKeyId;
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        if (enabled && !this.keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("bank.security.token.active-key must name one of bank.security.token.keys");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+        Tokens are only issued after a password login. A request authenticated by a token gets no new one,
+        otherwise a leaked token could be refreshed forever and ttl-seconds would not bound its use.
+     */
+    public boolean canIssueFor(Authentication authentication) {
+        return enabled && authentication != null && !(authentication instanceof TokenAuthentication);
+    }
+
+    public String issue(int customerId, String email, Collection<? extends GrantedAuthority> authorities) {
+        StringJoiner authorityNames = new StringJoiner(",");
+        for (GrantedAuthority authority : authorities) {
+            authorityNames.add(authority.getAuthority());
+        }
+        long expiresAt = clock.instant().getEpochSecond() + ttlSeconds;
+        String payload = customerId + "\n" + email + "\n" + expiresAt + "\n" + authorityNames;
+        String signedPart = activeKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signedPart + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), signedPart));
+    }
+
+    /*
+        Returns an authenticated token for a valid, unexpired token and throws BadCredentialsException otherwise.
+     */
+    public Authentication verify(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        int payloadStart = token.indexOf('.');
+        if (payloadStart <= 0 || signatureStart <= payloadStart) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        SecretKeySpec key = keys.get(token.substring(0, payloadStart));
+        if (key == null) {
+            throw new BadCredentialsException("Unknown token key");
+        }
+        String signedPart = token.substring(0, signatureStart);
+        byte[] signature;
+        String[] fields;
+        try {
+            signature = DECODER.decode(token.substring(signatureStart + 1));
+            fields = new String(DECODER.decode(token.substring(payloadStart + 1, signatureStart)), StandardCharsets.UTF_8)
+                    .split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        if (!MessageDigest.isEqual(signature, sign(key, signedPart)) || fields.length != 4) {
+            throw new BadCredentialsException("Invalid token signature");
+        }
+        long expiresAt = Long.parseLong(fields[2]);
+        if (expiresAt < clock.instant().getEpochSecond()) {
+            throw new BadCredentialsException("Token expired");
+        }
+        TokenAuthentication authentication = new TokenAuthentication(fields[1], parseAuthorities(fields[3]), expiresAt);
+        authentication.setDetails(Integer.parseInt(fields[0]));
+        return authentication;
+    }
+
+    private static AuthoritySet parseAuthorities(String authorityNames) {
+        if (authorityNames.isEmpty()) {
+            return AuthoritySet.EMPTY;
+        }
+        return AuthorityRegistry.setOfNames(Arrays.asList(authorityNames.split(",")));
+    }
+
+    private static byte[] sign(SecretKeySpec key, String signedPart) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signedPart.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static Map<String, SecretKeySpec> parseKeys(List<String> keys) {
+        Map<String, SecretKeySpec> parsed = new HashMap<>();
+        for (String key : keys) {
+            int separator = key.indexOf(':');
+            if (separator <= 0 || key.substring(0, separator).contains(".")) {
+                throw new IllegalStateException("bank.security.token.keys entries must look like <key id>:<base64 secret>");
+            }
+            byte[] secret = Base64.getDecoder().decode(key.substring(separator + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("Token key " + key.substring(0, separator) + " must be at least 256 bits");
+            }
+            parsed.put(key.substring(0, separator).trim(), new SecretKeySpec(secret, HMAC_ALGORITHM));
+        }
+        return parsed;
+    }
+}
@@ -1,28 +1,58 @@
 package com.springsecurity.config;
 
-import com.springsecurity.model.Customer;
+import com.springsecurity.model.CustomerChangedEvent;
 import com.springsecurity.model.SecurityCustomer;
-import com.springsecurity.repositories.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class BankUserDetails implements UserDetailsService {
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private CustomerPrincipalLoader customerPrincipalLoader;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        List<Customer> customer = customerRepository.findByEmail(username);
-        if (customer.size() == 0) {
-            throw new UsernameNotFoundException("User details not found for the user: " + username);
+        UserDetails user = userCache.getUserFromCache(username);
+        if (user == null) {
+            user = customerPrincipalLoader.loadByEmail(username)
+                    .map(SecurityCustomer::new)
+                    .orElseThrow(() -> new UsernameNotFoundException("User details not found for the user: " + username));
+            userCache.putUserInCache(user);
+        }
+        // the cache holds the unlocked view, lock state is always taken from the tracker
+        if (user instanceof SecurityCustomer && loginAttemptTracker.isLocked(username)) {
+            return ((SecurityCustomer) user).locked();
         }
-        return new SecurityCustomer(customer.get(0));
+        return user;
+    }
+
+    /*
+        Must be called whenever the password or the roles of a customer change. Changes made through JPA arrive
+        here as CustomerChangedEvent; changes made directly in the database are only seen once the cached
+        entries expire.
+     */
+    public void evictUser(String username) {
+        userCache.removeUserFromCache(username);
+        verifiedCredentialCache.invalidate(username);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        evictUser(event.getEmail());
     }
 }
@@ -1,55 +1,68 @@
 package com.springsecurity.config;
 
-import com.springsecurity.model.Authority;
-import com.springsecurity.model.Customer;
-import com.springsecurity.repositories.CustomerRepository;
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import com.springsecurity.model.CustomerPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 @Component
 public class BankUsernamePwdAuthenticationProvider implements AuthenticationProvider {
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private CustomerPrincipalLoader customerPrincipalLoader;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private RateLimiter rateLimiter;
 
     @Override
     public Authentication authenticate(Authentication authentication) {
         String username = authentication.getName();
         String pwd = authentication.getCredentials().toString();
-        List<Customer> customer = customerRepository.findByEmail(username);
-        if (customer.size() > 0) {
-            if (passwordEncoder.matches(pwd, customer.get(0).getPwd())) {
-                return new UsernamePasswordAuthenticationToken(username, pwd, getGrantedAuthorities(customer.get(0).getAuthorities()));
+        AuthoritySet cachedAuthorities = verifiedCredentialCache.getAuthorities(username, pwd);
+        if (cachedAuthorities != null) {
+            // already passed BCrypt, neither blocked by nor clearing a lockout, see LoginAttemptTracker
+            return new BankAuthenticationToken(username, pwd, cachedAuthorities);
+        }
+        if (loginAttemptTracker.isLocked(username)) {
+            throw new LockedException("Too many failed logins, account temporarily locked!");
+        }
+        // only logins that would run BCrypt or fail use up the username's budget
+        rateLimiter.chargeUsername(username);
+        Optional<CustomerPrincipal> customer = customerPrincipalLoader.loadByEmail(username);
+        if (customer.isPresent()) {
+            if (passwordHashingExecutor.matches(pwd, customer.get().getPwd())) {
+                // canonical authorities shared by every customer with the same roles
+                AuthoritySet authorities = AuthorityRegistry.setOfNames(customer.get().getAuthorityNames());
+                verifiedCredentialCache.put(username, pwd, authorities);
+                loginAttemptTracker.recordSuccess(username);
+                return new BankAuthenticationToken(username, pwd, authorities);
             } else {
+                loginAttemptTracker.recordFailure(username);
                 throw new BadCredentialsException("Invalid password!");
             }
         }else {
+            loginAttemptTracker.recordFailure(username);
             throw new BadCredentialsException("No user registered with this details!");
         }
     }
 
-    private List<GrantedAuthority> getGrantedAuthorities(Set<Authority> authorities) {
-        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-        for (Authority authority : authorities) {
-            grantedAuthorities.add(new SimpleGrantedAuthority(authority.getName()));
-        }
-        return grantedAuthorities;
-    }
-
     @Override
     public boolean supports(Class<?> authenticationType) {
         return authenticationType.equals(UsernamePasswordAuthenticationToken.class);
@@ -0,0 +1,37 @@
+package com.springsecurity.config;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+    Authorizes requests against the compiled UrlAuthorizationTable. Sits right after the ExceptionTranslationFilter,
+    which turns the AccessDeniedException into a login challenge for anonymous users and a 403 for everybody else,
+    just like it does for the FilterSecurityInterceptor of the antMatchers chain.
+ */
+public class CompiledAuthorizationFilter extends OncePerRequestFilter {
+
+    private final UrlAuthorizationTable urlAuthorizationTable;
+
+    public CompiledAuthorizationFilter(UrlAuthorizationTable urlAuthorizationTable) {
+        this.urlAuthorizationTable = urlAuthorizationTable;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getPathInfo() == null
+                ? request.getServletPath()
+                : request.getServletPath() + request.getPathInfo();
+        if (!urlAuthorizationTable.isAllowed(path, SecurityContextHolder.getContext().getAuthentication())) {
+            throw new AccessDeniedException("Access is denied");
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,68 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/*
+    Opt-in (bank.db.connection-hold.enabled=true) connection hold times per repository method: the DataSource
+    bean hands out connections timed by ConnectionHoldTimer, and every Spring Data repository proxy gets an
+    advice telling it which repository method is running. Every Connection becomes a reflective proxy, so this
+    is meant for a profiling run and not for production.
+ */
+@Component
+public class ConnectionHoldPostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private ConnectionHoldTimer timer;
+
+    // a provider, so that creating this post processor does not initialize the registry before its own post processors
+    public ConnectionHoldPostProcessor(@Value("${bank.db.connection-hold.enabled:false}") boolean enabled,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        if (bean instanceof DataSource) {
+            return timer().timed((DataSource) bean);
+        }
+        if (bean instanceof Repository && bean instanceof Advised) {
+            Advised repository = (Advised) bean;
+            repository.addAdvice(0, timer().repositoryInterceptor(repositoryName(repository)));
+        }
+        return bean;
+    }
+
+    private synchronized ConnectionHoldTimer timer() {
+        if (timer == null) {
+            timer = new ConnectionHoldTimer(meterRegistry.getObject());
+        }
+        return timer;
+    }
+
+    /*
+        The application's repository interface, e.g. AccountsRepository, and not CrudRepository.
+     */
+    private static String repositoryName(Advised repository) {
+        for (Class<?> type : repository.getProxiedInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return repository.getTargetClass() == null ? "unknown" : repository.getTargetClass().getSimpleName();
+    }
+}
@@ -0,0 +1,145 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Publishes how long JDBC connections are held, from checkout to close, as the histogram timer
+    bank.db.connection.hold tagged with the repository method that used the connection first
+    (e.g. AccountsRepository.findByCustomerId), "none" when no repository method ran on it.
+
+    A connection checked out before any repository method, like the one of a @Transactional(readOnly = true)
+    controller method, is attributed to the first repository method called on the same thread while it is held.
+    With spring.jpa.open-in-view the session keeps its connection until the end of the request, so the hold
+    time covers the rest of the request and not only the query.
+ */
+public class ConnectionHoldTimer {
+
+    static final String METER_NAME = "bank.db.connection.hold";
+
+    private static final String NO_REPOSITORY = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<String> currentMethod = new ThreadLocal<>();
+
+    private final ThreadLocal<HeldConnection> unattributed = new ThreadLocal<>();
+
+    public ConnectionHoldTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /*
+        Advice for a repository proxy, the outermost repository method of a thread is the current one.
+     */
+    MethodInterceptor repositoryInterceptor(String repositoryName) {
+        return invocation -> {
+            if (currentMethod.get() != null) {
+                return invocation.proceed();
+            }
+            String method = repositoryName + "." + invocation.getMethod().getName();
+            HeldConnection held = unattributed.get();
+            if (held != null) {
+                held.owner = method;
+                unattributed.remove();
+            }
+            currentMethod.set(method);
+            try {
+                return invocation.proceed();
+            } finally {
+                currentMethod.remove();
+            }
+        };
+    }
+
+    DataSource timed(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return held(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return held(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private Connection held(Connection connection) {
+        HeldConnection held = new HeldConnection(connection, currentMethod.get());
+        if (held.owner == null) {
+            unattributed.set(held);
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionHoldTimer.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, held);
+    }
+
+    private Timer timer(String method) {
+        return timers.computeIfAbsent(method, name -> Timer.builder(METER_NAME)
+                .description("Time a JDBC connection was held, from checkout to close")
+                .tag("method", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+    }
+
+    private class HeldConnection implements InvocationHandler {
+
+        private final Connection target;
+
+        private final long checkedOut = System.nanoTime();
+
+        private volatile String owner;
+
+        private boolean closed;
+
+        private HeldConnection(Connection target, String owner) {
+            this.target = target;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (unattributed.get() == this) {
+                            unattributed.remove();
+                        }
+                        timer(owner == null ? NO_REPOSITORY : owner)
+                                .record(System.nanoTime() - checkedOut, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.springsecurity.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.cors.CorsConfiguration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+    Immutable CORS policy built once at startup, applied by CorsPolicyFilter.
+
+    Origins are looked up in a hash set and every response header value except the echoed origin and
+    requested headers is precomputed. Credentials are always allowed, so the allowed origin is echoed
+    instead of "*" and the requested headers are echoed instead of a wildcard, as browsers require.
+ */
+public class CorsPolicy {
+
+    static final String ALLOWED_METHODS = "GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS";
+
+    static final String VARY = HttpHeaders.ORIGIN + ", " + HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD + ", "
+            + HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS;
+
+    private final Set<String> allowedOrigins;
+
+    private final List<String> exposedHeaderNames;
+
+    private final long maxAgeSeconds;
+
+    private final String exposedHeaders;
+
+    private final String maxAge;
+
+    public CorsPolicy(Collection<String> allowedOrigins, Collection<String> exposedHeaders, long maxAgeSeconds) {
+        Set<String> origins = new HashSet<>();
+        for (String origin : allowedOrigins) {
+            if (!origin.isBlank()) {
+                // browsers send the origin without a trailing slash
+                origins.add(origin.trim().replaceAll("/+$", ""));
+            }
+        }
+        this.allowedOrigins = Set.copyOf(origins);
+        this.exposedHeaderNames = List.copyOf(exposedHeaders);
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.exposedHeaders = String.join(", ", exposedHeaders);
+        this.maxAge = Long.toString(maxAgeSeconds);
+    }
+
+    public boolean isAllowedOrigin(String origin) {
+        return allowedOrigins.contains(origin);
+    }
+
+    public Set<String> getAllowedOrigins() {
+        return allowedOrigins;
+    }
+
+    /*
+        The same policy as a CorsConfiguration, for Spring's reactive CorsWebFilter in the reactive profile.
+     */
+    public CorsConfiguration toCorsConfiguration() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(new ArrayList<>(allowedOrigins));
+        config.setAllowedMethods(Arrays.asList(ALLOWED_METHODS.split(", ")));
+        config.setAllowCredentials(true);
+        config.setAllowedHeaders(Collections.singletonList(CorsConfiguration.ALL));
+        config.setExposedHeaders(exposedHeaderNames);
+        config.setMaxAge(maxAgeSeconds);
+        return config;
+    }
+
+    /*
+        Headers of the response to a preflight from an allowed origin.
+     */
+    public void applyPreflight(HttpServletRequest request, HttpServletResponse response, String origin) {
+        response.setHeader(HttpHeaders.VARY, VARY);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, ALLOWED_METHODS);
+        String requestedHeaders = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+        if (requestedHeaders != null && !requestedHeaders.isEmpty()) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, requestedHeaders);
+        }
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+    }
+
+    /*
+        Headers added to an actual cross-origin request from an allowed origin.
+     */
+    public void applyActual(HttpServletResponse response, String origin) {
+        response.setHeader(HttpHeaders.VARY, VARY);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        if (!exposedHeaders.isEmpty()) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, exposedHeaders);
+        }
+    }
+}
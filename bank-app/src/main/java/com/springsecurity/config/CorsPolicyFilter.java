@@ -0,0 +1,54 @@
+package com.springsecurity.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+    First filter of the security chain. Answers CORS preflights from allowed origins with 200 right away,
+    so they never reach rate limiting, authentication or authorization, adds the CORS headers to actual
+    cross-origin requests and rejects both from other origins with 403, like Spring's CorsFilter.
+    Requests without an Origin header, and same-origin requests, pass through untouched.
+ */
+public class CorsPolicyFilter extends OncePerRequestFilter {
+
+    private final CorsPolicy corsPolicy;
+
+    public CorsPolicyFilter(CorsPolicy corsPolicy) {
+        this.corsPolicy = corsPolicy;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        if (origin == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean preflight = HttpMethod.OPTIONS.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD) != null;
+        if (corsPolicy.isAllowedOrigin(origin)) {
+            if (preflight) {
+                corsPolicy.applyPreflight(request, response, origin);
+                response.setStatus(HttpStatus.OK.value());
+                return;
+            }
+            corsPolicy.applyActual(response, origin);
+        } else if (CorsUtils.isCorsRequest(request)) {
+            // only parse the origin when it is not one of ours, same-origin requests may send it too
+            response.setHeader(HttpHeaders.VARY, CorsPolicy.VARY);
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Invalid CORS request");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,41 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.repositories.CustomerRepository;
+import com.springsecurity.repositories.CustomerRepository.CredentialsRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    Read path shared by BankUsernamePwdAuthenticationProvider and BankUserDetails.
+    Folds the rows of CustomerRepository.findCredentialsByEmail into a CustomerPrincipal.
+ */
+@Component
+public class CustomerPrincipalLoader {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    public Optional<CustomerPrincipal> loadByEmail(String email) {
+        List<CredentialsRow> rows = customerRepository.findCredentialsByEmail(email);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        // rows are ordered by customer id, keep the first customer like findByEmail(...).get(0) did
+        CredentialsRow first = rows.get(0);
+        List<String> authorityNames = new ArrayList<>(rows.size());
+        for (CredentialsRow row : rows) {
+            if (row.getId() != first.getId()) {
+                break;
+            }
+            if (row.getAuthority() != null) {
+                authorityNames.add(row.getAuthority());
+            }
+        }
+        return Optional.of(new CustomerPrincipal(first.getId(), first.getEmail(), first.getPwd(), authorityNames));
+    }
+}
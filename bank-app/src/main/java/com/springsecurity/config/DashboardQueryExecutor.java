@@ -0,0 +1,88 @@
+package com.springsecurity.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+    Runs the per-section queries of /myDashboard. Bounded in threads and queue so a slow database makes
+    dashboard sections time out instead of piling up work. Deliberately not exposed as an Executor bean,
+    which would replace Spring Boot's applicationTaskExecutor.
+
+    With bank.threads.virtual=true every query runs on a new virtual thread and a semaphore of
+    threads + queue-capacity permits takes the place of the pool as the bound on in-flight queries.
+ */
+@Component
+public class DashboardQueryExecutor {
+
+    private final ExecutorService executor;
+
+    private final Semaphore inFlight;
+
+    @Autowired
+    public DashboardQueryExecutor(@Value("${bank.dashboard.threads:16}") int threads,
+                                  @Value("${bank.dashboard.queue-capacity:256}") int queueCapacity,
+                                  @Value("${bank.threads.virtual:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            this.executor = VirtualThreads.newThreadPerTaskExecutor("dashboard-virtual-");
+            this.inFlight = new Semaphore(threads + queueCapacity);
+            return;
+        }
+        this.inFlight = null;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /*
+        Returns a failed future instead of throwing when the executor is saturated.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        if (inFlight != null) {
+            return supplyBounded(query);
+        }
+        try {
+            return CompletableFuture.supplyAsync(query, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyBounded(Supplier<T> query) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many dashboard queries"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return query.get();
+                } finally {
+                    inFlight.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
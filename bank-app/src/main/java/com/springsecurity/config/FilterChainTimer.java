@@ -0,0 +1,150 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    Publishes the time spent in each filter of one security filter chain as the histogram timer
+    bank.security.filter, tagged with
+
+        filter   - simple class name of the filter, "application" for everything after the chain
+        endpoint - pattern of the UrlAuthorizationTable rule matching the request, "other" if none does
+        outcome  - authenticated, anonymous, unauthorized, forbidden, rate_limited, overloaded or error
+
+    Timers are looked up once per tag combination and kept in an array, so recording a request only costs
+    a few nanoTime() calls and one Timer.record() per filter.
+ */
+public class FilterChainTimer {
+
+    static final String ATTRIBUTE = FilterChainTimer.class.getName() + ".timings";
+
+    static final String METER_NAME = "bank.security.filter";
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    enum Outcome {
+        AUTHENTICATED, ANONYMOUS, UNAUTHORIZED, FORBIDDEN, RATE_LIMITED, OVERLOADED, ERROR;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final UrlAuthorizationTable urlAuthorizationTable;
+
+    private final List<String> filterNames;
+
+    private final int endpoints;
+
+    private final AtomicReferenceArray<Timer> timers;
+
+    /*
+        filterNames holds the names of the wrapped filters followed by the name used for the rest of the request.
+     */
+    public FilterChainTimer(MeterRegistry meterRegistry, UrlAuthorizationTable urlAuthorizationTable,
+                            List<String> filterNames) {
+        this.meterRegistry = meterRegistry;
+        this.urlAuthorizationTable = urlAuthorizationTable;
+        this.filterNames = List.copyOf(filterNames);
+        this.endpoints = urlAuthorizationTable.getRules().size() + 1;
+        this.timers = new AtomicReferenceArray<>(endpoints * Outcome.values().length * this.filterNames.size());
+    }
+
+    Timings newTimings() {
+        return new Timings(filterNames.size());
+    }
+
+    void record(ServletRequest request, ServletResponse response, Timings timings, boolean failed) {
+        int endpoint = urlAuthorizationTable.indexOf(path((HttpServletRequest) request)) + 1;
+        Outcome outcome = outcome((HttpServletResponse) response, timings.authentication, failed);
+        long[] inclusive = timings.inclusive;
+        for (int i = 0; i < inclusive.length; i++) {
+            if (inclusive[i] < 0) {
+                continue;
+            }
+            long exclusive = i + 1 < inclusive.length && inclusive[i + 1] >= 0
+                    ? inclusive[i] - inclusive[i + 1]
+                    : inclusive[i];
+            timer(endpoint, outcome, i).record(exclusive, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(int endpoint, Outcome outcome, int filter) {
+        int slot = (endpoint * Outcome.values().length + outcome.ordinal()) * filterNames.size() + filter;
+        Timer timer = timers.get(slot);
+        if (timer == null) {
+            // concurrent registrations of the same id return the same Timer
+            timer = Timer.builder(METER_NAME)
+                    .description("Time spent in one filter of the security filter chain, excluding the filters after it")
+                    .tag("filter", filterNames.get(filter))
+                    .tag("endpoint", endpoint == 0 ? "other" : urlAuthorizationTable.getRules().get(endpoint - 1).getPattern())
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            timers.set(slot, timer);
+        }
+        return timer;
+    }
+
+    private static Outcome outcome(HttpServletResponse response, Authentication authentication, boolean failed) {
+        if (failed) {
+            return Outcome.ERROR;
+        }
+        switch (response.getStatus()) {
+            case 401:
+                return Outcome.UNAUTHORIZED;
+            case 403:
+                return Outcome.FORBIDDEN;
+            case 429:
+                return Outcome.RATE_LIMITED;
+            case 503:
+                return Outcome.OVERLOADED;
+            default:
+                if (response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                    return Outcome.ERROR;
+                }
+                return authentication == null || TRUST_RESOLVER.isAnonymous(authentication)
+                        ? Outcome.ANONYMOUS
+                        : Outcome.AUTHENTICATED;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getPathInfo() == null
+                ? request.getServletPath()
+                : request.getServletPath() + request.getPathInfo();
+    }
+
+    /*
+        Inclusive times of one request, -1 for filters the request did not reach.
+     */
+    static final class Timings {
+
+        final long[] inclusive;
+
+        Authentication authentication;
+
+        int nested;
+
+        private Timings(int filters) {
+            inclusive = new long[filters];
+            Arrays.fill(inclusive, -1);
+        }
+    }
+}
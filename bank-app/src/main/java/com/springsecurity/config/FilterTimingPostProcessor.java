@@ -0,0 +1,71 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.Filter;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Opt-in (bank.security.filter-timing.enabled=true) instrumentation of the filter chain built by
+    ProjectSecurityConfig. The springSecurityFilterChain bean is replaced by a FilterChainProxy whose filters
+    are wrapped in TimedFilter, see FilterChainTimer for the published meters.
+ */
+@Component
+public class FilterTimingPostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ObjectProvider<UrlAuthorizationTable> urlAuthorizationTable;
+
+    // providers, so that creating this post processor does not initialize the registry before its own post processors
+    public FilterTimingPostProcessor(@Value("${bank.security.filter-timing.enabled:false}") boolean enabled,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     ObjectProvider<UrlAuthorizationTable> urlAuthorizationTable) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.urlAuthorizationTable = urlAuthorizationTable;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof FilterChainProxy)) {
+            return bean;
+        }
+        List<SecurityFilterChain> chains = new ArrayList<>();
+        for (SecurityFilterChain chain : ((FilterChainProxy) bean).getFilterChains()) {
+            chains.add(new DefaultSecurityFilterChain(
+                    chain instanceof DefaultSecurityFilterChain
+                            ? ((DefaultSecurityFilterChain) chain).getRequestMatcher()
+                            : chain::matches,
+                    timed(chain.getFilters())));
+        }
+        FilterChainProxy timed = new FilterChainProxy(chains);
+        timed.afterPropertiesSet();
+        return timed;
+    }
+
+    private List<Filter> timed(List<Filter> filters) {
+        List<String> names = new ArrayList<>(filters.size() + 1);
+        for (Filter filter : filters) {
+            String name = filter.getClass().getSimpleName();
+            names.add(name.isEmpty() ? filter.getClass().getName() : name);
+        }
+        names.add("application");
+        FilterChainTimer timer = new FilterChainTimer(meterRegistry.getObject(), urlAuthorizationTable.getObject(), names);
+        List<Filter> timed = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            timed.add(new TimedFilter(filters.get(i), timer, i, i == filters.size() - 1));
+        }
+        return timed;
+    }
+}
@@ -0,0 +1,146 @@
+package com.springsecurity.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Tracks failed logins per username in memory and locks a username once max-failures failures fall inside a
+    sliding window of window-seconds. Each further lockout doubles the lock time, from base-lock-seconds up to
+    max-lock-seconds. A successful password verification clears the history.
+
+    Logins answered from VerifiedCredentialCache are deliberately left out: they neither clear the history nor are
+    refused while the username is locked. They present a password that already passed BCrypt, so they cannot be
+    guesses, and letting them through keeps a guesser from locking the real user out of verified sessions
+    while the user's own requests cannot reset the guesser's escalating lock.
+
+    Entries live in a size-bounded Caffeine cache and expire retention-hours after the last failure, so memory stays
+    bounded no matter how many usernames are tried. isLocked() is a single map lookup and is checked before any
+    password hashing.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private final int maxFailures;
+
+    private final long windowNanos;
+
+    private final long baseLockNanos;
+
+    private final long maxLockNanos;
+
+    private final Cache<String, AttemptState> attempts;
+
+    private final Counter lockouts;
+
+    private final Ticker ticker;
+
+    @Autowired
+    public LoginAttemptTracker(MeterRegistry meterRegistry,
+                               @Value("${bank.security.lockout.max-failures:5}") int maxFailures,
+                               @Value("${bank.security.lockout.window-seconds:300}") long windowSeconds,
+                               @Value("${bank.security.lockout.base-lock-seconds:30}") long baseLockSeconds,
+                               @Value("${bank.security.lockout.max-lock-seconds:3600}") long maxLockSeconds,
+                               @Value("${bank.security.lockout.max-entries:100000}") long maxEntries,
+                               @Value("${bank.security.lockout.retention-hours:24}") long retentionHours) {
+        this(meterRegistry, maxFailures, windowSeconds, baseLockSeconds, maxLockSeconds, maxEntries, retentionHours,
+                Ticker.systemTicker());
+    }
+
+    LoginAttemptTracker(MeterRegistry meterRegistry, int maxFailures, long windowSeconds, long baseLockSeconds,
+                        long maxLockSeconds, long maxEntries, long retentionHours, Ticker ticker) {
+        this.ticker = ticker;
+        this.maxFailures = maxFailures;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.baseLockNanos = TimeUnit.SECONDS.toNanos(baseLockSeconds);
+        this.maxLockNanos = TimeUnit.SECONDS.toNanos(maxLockSeconds);
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .ticker(ticker)
+                .build();
+        this.lockouts = Counter.builder("bank.security.lockouts")
+                .description("Usernames locked after too many failed logins")
+                .register(meterRegistry);
+    }
+
+    public boolean isLocked(String username) {
+        AttemptState state = attempts.getIfPresent(username);
+        return state != null && state.isLocked(ticker.read());
+    }
+
+    public void recordFailure(String username) {
+        long now = ticker.read();
+        attempts.asMap().compute(username, (key, state) -> {
+            AttemptState next = (state == null ? new AttemptState(maxFailures) : state).withFailure(now, this);
+            if (next.lockoutCount != (state == null ? 0 : state.lockoutCount)) {
+                lockouts.increment();
+            }
+            return next;
+        });
+    }
+
+    public void recordSuccess(String username) {
+        if (attempts.getIfPresent(username) != null) {
+            attempts.invalidate(username);
+        }
+    }
+
+    private long lockDuration(int previousLockouts) {
+        long duration = baseLockNanos << Math.min(previousLockouts, 30);
+        return duration <= 0 || duration > maxLockNanos ? maxLockNanos : duration;
+    }
+
+    /*
+        Immutable per-username state; replaced atomically through Cache.asMap().compute.
+        failures is a ring of the last maxFailures failure times.
+     */
+    private static final class AttemptState {
+
+        private final long[] failures;
+
+        private final int next;
+
+        private final int lockoutCount;
+
+        private final long lockedUntil;
+
+        AttemptState(int maxFailures) {
+            this(new long[maxFailures], 0, 0, 0);
+        }
+
+        private AttemptState(long[] failures, int next, int lockoutCount, long lockedUntil) {
+            this.failures = failures;
+            this.next = next;
+            this.lockoutCount = lockoutCount;
+            this.lockedUntil = lockedUntil;
+        }
+
+        boolean isLocked(long now) {
+            return lockoutCount > 0 && lockedUntil - now > 0;
+        }
+
+        AttemptState withFailure(long now, LoginAttemptTracker tracker) {
+            long[] updated = failures.clone();
+            updated[next] = now;
+            int following = (next + 1) % updated.length;
+            // after the write, the following slot holds the oldest of the last maxFailures failures (0 if unused)
+            long oldest = updated[following];
+            boolean windowFull = oldest != 0 && now - oldest <= tracker.windowNanos;
+            if (windowFull && !isLocked(now)) {
+                // start over after locking so the next lock needs a fresh set of failures
+                return new AttemptState(new long[updated.length], 0, lockoutCount + 1,
+                        now + tracker.lockDuration(lockoutCount));
+            }
+            return new AttemptState(updated, following, lockoutCount, lockedUntil);
+        }
+    }
+}
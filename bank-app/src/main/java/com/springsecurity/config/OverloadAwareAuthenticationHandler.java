@@ -0,0 +1,62 @@
+package com.springsecurity.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+    Answers 503 with Retry-After when authentication failed because the hashing pool was saturated, 429 when
+    the username ran out of password verifications, and hands every other failure to the regular form login /
+    HTTP Basic handling.
+ */
+public class OverloadAwareAuthenticationHandler implements AuthenticationEntryPoint, AuthenticationFailureHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AuthenticationEntryPoint entryPoint;
+
+    private final AuthenticationFailureHandler failureHandler;
+
+    public OverloadAwareAuthenticationHandler(AuthenticationEntryPoint entryPoint, AuthenticationFailureHandler failureHandler) {
+        this.entryPoint = entryPoint;
+        this.failureHandler = failureHandler;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        if (authException instanceof PasswordHashingRejectedException || authException instanceof UsernameRateLimitedException) {
+            reject(response, authException);
+            return;
+        }
+        entryPoint.commence(request, response, authException);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingRejectedException || exception instanceof UsernameRateLimitedException) {
+            reject(response, exception);
+            return;
+        }
+        failureHandler.onAuthenticationFailure(request, response, exception);
+    }
+
+    private void reject(HttpServletResponse response, AuthenticationException exception) throws IOException {
+        if (exception instanceof UsernameRateLimitedException) {
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    Long.toString(((UsernameRateLimitedException) exception).getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), exception.getMessage());
+            return;
+        }
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+    }
+}
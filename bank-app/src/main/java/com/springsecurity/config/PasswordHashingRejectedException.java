@@ -0,0 +1,16 @@
+package com.springsecurity.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/*
+    Thrown when the password hashing pool cannot take more work. It is translated to
+    503 Service Unavailable by OverloadAwareAuthenticationHandler instead of 401.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 4790355176185390134L;
+
+    public PasswordHashingRejectedException(String msg) {
+        super(msg);
+    }
+}
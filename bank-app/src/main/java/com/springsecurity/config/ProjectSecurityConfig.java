@@ -1,30 +1,56 @@
 package com.springsecurity.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.security.web.access.ExceptionTranslationFilter;
+import org.springframework.security.web.access.channel.ChannelProcessingFilter;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.sql.DataSource;
-import java.util.Collections;
 
+/*
+    Servlet security, replaced by com.springsecurity.reactive.ReactiveSecurityConfig in the reactive profile.
+ */
 @Configuration
+@Profile("!reactive")
 public class ProjectSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Autowired
+    private BankTokenService bankTokenService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bank.security.authorization.compiled:true}")
+    private boolean compiledAuthorization;
+
+    @Autowired
+    private UrlAuthorizationTable urlAuthorizationTable;
+
+    @Autowired
+    private CorsPolicy corsPolicy;
+
     /*
         * /myAccount - secured
         * /myBalance - secured
@@ -46,41 +72,42 @@ public class ProjectSecurityConfig extends WebSecurityConfigurerAdapter {
 //        http.httpBasic();
 
 
-        // configuration to resolve CORS error
-        http.cors().configurationSource(new CorsConfigurationSource() {
-            @Override
-            public CorsConfiguration getCorsConfiguration(HttpServletRequest httpServletRequest) {
-                CorsConfiguration config = new CorsConfiguration();
-                config.setAllowedOrigins(Collections.singletonList("http://localhost:4200"));
-                config.setAllowedMethods(Collections.singletonList("*"));
-                config.setAllowCredentials(true);
-                config.setAllowedHeaders(Collections.singletonList("*"));
-                config.setMaxAge(3600L);
-                return config;
-            }
-        });
+        // configuration to resolve CORS error, preflights are answered here before any other security filter
+        http.addFilterBefore(new CorsPolicyFilter(corsPolicy), ChannelProcessingFilter.class);
+
+        // throttle per client IP before any authentication work happens, logins reaching BCrypt are also limited per username
+        http.addFilterAfter(new RateLimitingFilter(rateLimiter, meterRegistry), CorsPolicyFilter.class);
 
         // Resolving CSRF error by disabling it in Spring Security (not recommended)
         http.csrf().disable();
 
         /*
-            Custom configuration as per our requirements.
+            Custom configuration as per our requirements, see SecurityPolicyConfig.urlAuthorizationTable().
+            By default the rules are compiled into a lookup table, bank.security.authorization.compiled=false
+            registers them with the antMatchers chain instead.
+         */
+        if (compiledAuthorization) {
+            http.addFilterAfter(new CompiledAuthorizationFilter(urlAuthorizationTable), ExceptionTranslationFilter.class);
+        } else {
+            http.authorizeRequests(urlAuthorizationTable::applyTo);
+        }
+
+        // answer 503 instead of 401 when the password hashing pool is saturated
+        BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+        basicEntryPoint.setRealmName("Realm");
+        OverloadAwareAuthenticationHandler overloadAwareHandler = new OverloadAwareAuthenticationHandler(
+                basicEntryPoint, new SimpleUrlAuthenticationFailureHandler("/login?error"));
+        http.formLogin().failureHandler(overloadAwareHandler);
+        http.httpBasic().authenticationEntryPoint(overloadAwareHandler);
+
+        /*
+            Opt-in stateless mode: /user hands out a signed token and later requests present it as a bearer token,
+            so no session is created and neither the database nor BCrypt is involved after the first login.
          */
-        http.authorizeRequests((requests) -> {
-            // /myAccount will only be accessed by authenticated user with the role USER
-            // /myBalance will only be accessed by authenticated user with the role USER or ADMIN
-            // /myLoans will only be accessed by authenticated user with the role ROOT
-            // /myCards will only be accessed by authenticated user
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/myAccount")).hasRole("USER");
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/myLoans")).hasRole("ROOT");
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/myCards")).authenticated();
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/user")).authenticated();
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/myBalance")).hasAnyRole("USER", "ADMIN");
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/contact")).permitAll();
-            ((ExpressionUrlAuthorizationConfigurer.AuthorizedUrl)requests.antMatchers("/notices")).permitAll();
-        });
-        http.formLogin();
-        http.httpBasic();
+        if (bankTokenService.isEnabled()) {
+            http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+            http.addFilterBefore(new TokenAuthenticationFilter(bankTokenService), BasicAuthenticationFilter.class);
+        }
 
 
         /*
@@ -140,9 +167,4 @@ public class ProjectSecurityConfig extends WebSecurityConfigurerAdapter {
 //    public UserDetailsService userDetailsService(DataSource dataSource) {
 //        return new JdbcUserDetailsManager(dataSource);
 //    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
@@ -0,0 +1,219 @@
+package com.springsecurity.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Token buckets keyed by client IP (per endpoint rule, and for any request presenting credentials) and by
+    username, held in two separate Caffeine caches so that traffic from many addresses cannot crowd out the
+    username buckets.
+
+    Each bucket is a single AtomicLong updated with the generic cell rate algorithm, so checking a bucket is one
+    CAS and never blocks. Each cache holds at most bank.security.rate-limit.max-entries buckets and drops buckets
+    unused for bank.security.rate-limit.idle-seconds (at least the longest rule period, by then a bucket is full
+    again). A bucket is always created when it is missing, a full cache evicts another one instead.
+
+    Rules are configured as bank.security.rate-limit.rules=<ant pattern>:<requests>:<period seconds>,...
+    The username bucket is only charged by the authentication providers when a login misses the verified
+    credential cache, i.e. when it would run BCrypt or fail, so someone guessing a victim's password cannot
+    use up the budget of requests whose credentials were already verified.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+
+    private final List<Rule> rules;
+
+    private final Rule credentialsRule;
+
+    private final Rule usernameRule;
+
+    private final Ticker ticker;
+
+    private final Cache<String, Bucket> ipBuckets;
+
+    private final Cache<String, Bucket> usernameBuckets;
+
+    private final Counter rejectedByUsername;
+
+    @Autowired
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${bank.security.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${bank.security.rate-limit.rules:/contact:30:60,/login:10:60,/user:20:60}") List<String> rules,
+                       @Value("${bank.security.rate-limit.credentials.requests:300}") long credentialsRequests,
+                       @Value("${bank.security.rate-limit.credentials.period-seconds:60}") long credentialsPeriodSeconds,
+                       @Value("${bank.security.rate-limit.username.requests:60}") long usernameRequests,
+                       @Value("${bank.security.rate-limit.username.period-seconds:60}") long usernamePeriodSeconds,
+                       @Value("${bank.security.rate-limit.idle-seconds:600}") long idleSeconds,
+                       @Value("${bank.security.rate-limit.max-entries:100000}") int maxEntries) {
+        this(meterRegistry, enabled, parseRules(rules),
+                new Rule("credentials", credentialsRequests, credentialsPeriodSeconds),
+                new Rule("username", usernameRequests, usernamePeriodSeconds), idleSeconds, maxEntries, Ticker.systemTicker());
+    }
+
+    RateLimiter(MeterRegistry meterRegistry, boolean enabled, List<Rule> rules, Rule credentialsRule, Rule usernameRule,
+                long idleSeconds, int maxEntries, Ticker ticker) {
+        this.enabled = enabled;
+        this.rules = Collections.unmodifiableList(rules);
+        this.credentialsRule = credentialsRule;
+        this.usernameRule = usernameRule;
+        this.ticker = ticker;
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        idleNanos = Math.max(idleNanos, credentialsRule.period());
+        idleNanos = Math.max(idleNanos, usernameRule.period());
+        for (Rule rule : rules) {
+            idleNanos = Math.max(idleNanos, rule.period());
+        }
+        this.ipBuckets = newBucketCache(maxEntries, idleNanos, ticker);
+        this.usernameBuckets = newBucketCache(maxEntries, idleNanos, ticker);
+        Gauge.builder("bank.security.rate-limit.buckets", ipBuckets, Cache::estimatedSize)
+                .tag("key", "ip")
+                .description("Live rate limiting buckets")
+                .register(meterRegistry);
+        Gauge.builder("bank.security.rate-limit.buckets", usernameBuckets, Cache::estimatedSize)
+                .tag("key", "username")
+                .description("Live rate limiting buckets")
+                .register(meterRegistry);
+        this.rejectedByUsername = meterRegistry.counter("bank.security.rate-limit.rejected", "key", "username");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /*
+        Returns 0 when the request may proceed, otherwise the number of nanoseconds to wait before retrying.
+     */
+    public long tryAcquire(Rule rule, String clientIp) {
+        return acquire(ipBuckets, rule.pattern + '|' + clientIp, rule);
+    }
+
+    /*
+        For requests presenting credentials that no endpoint rule matched.
+     */
+    public long tryAcquireForCredentials(String clientIp) {
+        return acquire(ipBuckets, "credentials|" + clientIp, credentialsRule);
+    }
+
+    public long tryAcquireForUsername(String username) {
+        return acquire(usernameBuckets, username, usernameRule);
+    }
+
+    /*
+        Called before a password is verified against the database, throws UsernameRateLimitedException when
+        the username has no verification left.
+     */
+    public void chargeUsername(String username) {
+        if (!enabled) {
+            return;
+        }
+        long wait = tryAcquireForUsername(username);
+        if (wait > 0) {
+            rejectedByUsername.increment();
+            throw new UsernameRateLimitedException("Too many login attempts for this user, please retry later",
+                    retryAfterSeconds(wait));
+        }
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private long acquire(Cache<String, Bucket> buckets, String key, Rule rule) {
+        long now = ticker.read();
+        return buckets.get(key, k -> new Bucket(now)).tryAcquire(rule, now);
+    }
+
+    private static Cache<String, Bucket> newBucketCache(int maxEntries, long idleNanos, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+                .ticker(ticker)
+                // evict on the calling thread, the bound holds without waiting for the common pool
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private static List<Rule> parseRules(List<String> rules) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String rule : rules) {
+            String[] parts = rule.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Rate limit rules must look like <pattern>:<requests>:<period seconds>, got " + rule);
+            }
+            parsed.add(new Rule(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+        }
+        return parsed;
+    }
+
+    public static final class Rule {
+
+        private final String pattern;
+
+        // nanoseconds between two requests at the sustained rate
+        private final long emissionInterval;
+
+        // how far ahead of now the bucket may run, i.e. the burst size
+        private final long burstTolerance;
+
+        Rule(String pattern, long requests, long periodSeconds) {
+            if (requests <= 0 || periodSeconds <= 0) {
+                throw new IllegalArgumentException("Rate limit rule " + pattern + " needs at least one request per period "
+                        + "of at least one second, got " + requests + " per " + periodSeconds + " seconds");
+            }
+            this.pattern = pattern;
+            this.emissionInterval = TimeUnit.SECONDS.toNanos(periodSeconds) / requests;
+            this.burstTolerance = emissionInterval * (requests - 1);
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        // time for an empty bucket to fill up again
+        long period() {
+            return emissionInterval + burstTolerance;
+        }
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(Rule rule, long now) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long arrival = Math.max(current, now);
+                long wait = arrival - now - rule.burstTolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, arrival + rule.emissionInterval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
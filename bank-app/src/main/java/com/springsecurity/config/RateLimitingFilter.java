@@ -0,0 +1,77 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+    Sheds abusive traffic with 429 + Retry-After before it reaches password hashing or the database.
+    Requests matching a configured endpoint rule are limited per client IP, and every other request carrying
+    credentials (HTTP Basic header or form login) by the credentials rule per client IP. The per username
+    bucket is charged by the authentication provider, only for logins that reach BCrypt.
+ */
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final RateLimiter rateLimiter;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Counter rejectedByIp;
+
+    public RateLimitingFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.rejectedByIp = meterRegistry.counter("bank.security.rate-limit.rejected", "key", "ip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath() + (request.getPathInfo() == null ? "" : request.getPathInfo());
+        long wait = 0;
+        RateLimiter.Rule matched = null;
+        for (RateLimiter.Rule rule : rateLimiter.getRules()) {
+            if (pathMatcher.match(rule.getPattern(), path)) {
+                matched = rule;
+                wait = rateLimiter.tryAcquire(rule, request.getRemoteAddr());
+                break;
+            }
+        }
+        if (matched == null && presentsCredentials(request, path)) {
+            wait = rateLimiter.tryAcquireForCredentials(request.getRemoteAddr());
+        }
+        if (wait > 0) {
+            rejectedByIp.increment();
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    private static boolean presentsCredentials(HttpServletRequest request, String path) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(BASIC_PREFIX)
+                || "/login".equals(path) && HttpMethod.POST.matches(request.getMethod());
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(waitNanos)));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+    }
+}
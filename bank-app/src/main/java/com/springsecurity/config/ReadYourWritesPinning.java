@@ -0,0 +1,47 @@
+package com.springsecurity.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/*
+    Read-your-writes for ReplicaRoutingDataSource: a user who ran a read-write transaction reads from the primary
+    for the next pin duration, long enough for the replicas to have caught up. Users are the authenticated
+    principal of the current thread, anonymous requests and background threads are never pinned.
+ */
+public class ReadYourWritesPinning {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesPinning(Duration pinDuration, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(pinDuration)
+                .build();
+    }
+
+    public void recordWrite() {
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPinned() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,83 @@
+package com.springsecurity.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    With bank.datasource.replica-urls set, the application DataSource routes read-only transactions
+    (@Transactional(readOnly = true) on the account, balance, loans and cards endpoints and on the notices query
+    behind ActiveNoticesCache) to the replicas, see ReplicaRoutingDataSource. Every pool is a Hikari pool with the
+    spring.datasource.hikari settings; the replicas share the primary's credentials unless
+    bank.datasource.replica-username/-password are set.
+    Not used by the reactive profile, whose reads go through R2DBC.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "bank.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${bank.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${bank.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${bank.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${bank.datasource.read-your-writes-ms:5000}") long pinMillis,
+                                 @Value("${bank.datasource.read-your-writes-max-users:100000}") long pinMaxUsers,
+                                 @Value("${bank.datasource.replica-check-interval-ms:5000}") long checkIntervalMillis) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configure(primary, environment, meterRegistry, "primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            configure(replica, environment, meterRegistry, "replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas,
+                new ReadYourWritesPinning(Duration.ofMillis(pinMillis), pinMaxUsers), checkIntervalMillis);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /*
+        Spring Boot only publishes the hikaricp.connections metrics of DataSource beans, these pools are not.
+     */
+    private static void configure(HikariDataSource pool, Environment environment,
+                                  ObjectProvider<MeterRegistry> meterRegistry, String name) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.springsecurity.config;
+
+import com.springsecurity.controllers.BalanceController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    Security rules and components shared by the servlet stack (ProjectSecurityConfig) and the reactive profile
+    (com.springsecurity.reactive.ReactiveSecurityConfig), so both enforce the same policy.
+ */
+@Configuration
+public class SecurityPolicyConfig {
+
+    /*
+        URL authorization rules, the first matching pattern wins and requests matching none of them are permitted.
+     */
+    @Bean
+    public UrlAuthorizationTable urlAuthorizationTable() {
+        return UrlAuthorizationTable.builder()
+                // /myAccount will only be accessed by authenticated user with the role USER
+                .hasRole("/myAccount", "USER")
+                // /myLoans will only be accessed by authenticated user with the role ROOT
+                .hasRole("/myLoans", "ROOT")
+                // /myCards will only be accessed by authenticated user
+                .authenticated("/myCards")
+                .authenticated("/user")
+                // /myBalance will only be accessed by authenticated user with the role USER or ADMIN
+                .hasAnyRole("/myBalance", "USER", "ADMIN")
+                // /myTransactions/export will only be accessed by authenticated user with the role USER or ADMIN
+                .hasAnyRole("/myTransactions/export", "USER", "ADMIN")
+                // /myDashboard will only be accessed by authenticated user, each section checks the rule of its endpoint
+                .authenticated("/myDashboard")
+                .permitAll("/contact")
+                .permitAll("/notices")
+                // actuator: health checks are public, metrics and everything else only for ADMIN
+                .permitAll("/actuator/health")
+                .hasRole("/actuator/**", "ADMIN")
+                .build();
+    }
+
+    /*
+        CORS policy for the Angular front end, bank.cors.allowed-origins takes a comma separated list of origins.
+     */
+    @Bean
+    public CorsPolicy corsPolicy(@Value("${bank.cors.allowed-origins:http://localhost:4200}") List<String> allowedOrigins,
+                                 @Value("${bank.cors.max-age-seconds:3600}") long maxAgeSeconds) {
+        return new CorsPolicy(allowedOrigins,
+                Arrays.asList(HttpHeaders.AUTHORIZATION, BalanceController.NEXT_CURSOR_HEADER), maxAgeSeconds);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /*
+        Cache in front of BankUserDetails. Set bank.security.user-cache.enabled=false to always go to the database.
+     */
+    @Bean
+    public UserCache userCache(MeterRegistry meterRegistry,
+                               @Value("${bank.security.user-cache.enabled:true}") boolean enabled,
+                               @Value("${bank.security.user-cache.max-size:10000}") long maxSize,
+                               @Value("${bank.security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        if (!enabled) {
+            return new NullUserCache();
+        }
+        return new CaffeineUserCache(maxSize, Duration.ofSeconds(ttlSeconds), meterRegistry);
+    }
+}
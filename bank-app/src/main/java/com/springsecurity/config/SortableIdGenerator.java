@@ -0,0 +1,84 @@
+package com.springsecurity.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Lock-free, k-sortable 63 bit ids: 41 bits of milliseconds since 2021-01-01, 10 bits of node id
+    (bank.id.node-id, must be unique per running instance) and a 12 bit per-millisecond sequence.
+
+    Ids are unique per node and increase monotonically. When the sequence of a millisecond is exhausted, or the
+    clock steps backwards, the generator keeps counting on the last used millisecond instead of blocking.
+    String forms are zero padded so they sort the same way as the numbers, which keeps inserts into
+    string primary keys appending to the end of the index.
+ */
+@Component
+public class SortableIdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2021-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+
+    static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int DECIMAL_DIGITS = 19;
+
+    private final long nodeId;
+
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SortableIdGenerator(@Value("${bank.id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("bank.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastMillis = current >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String nextContactId() {
+        return "SR" + padded(nextId());
+    }
+
+    public String nextTransactionId() {
+        return padded(nextId());
+    }
+
+    private static String padded(long id) {
+        String digits = Long.toString(id);
+        StringBuilder padded = new StringBuilder(DECIMAL_DIGITS);
+        for (int i = digits.length(); i < DECIMAL_DIGITS; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+}
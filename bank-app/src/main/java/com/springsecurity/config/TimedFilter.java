@@ -0,0 +1,86 @@
+package com.springsecurity.config;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/*
+    Wraps one filter of a security filter chain and records how long the request spent in it, including
+    everything further down the chain. FilterChainTimer subtracts the time of the next filter when the request
+    leaves the first filter, which leaves the time of the filter itself. The last filter also times the
+    rest of the request after the security chain (DispatcherServlet and the controller).
+ */
+public class TimedFilter implements Filter {
+
+    private final Filter delegate;
+
+    private final FilterChainTimer timer;
+
+    private final int index;
+
+    private final boolean last;
+
+    public TimedFilter(Filter delegate, FilterChainTimer timer, int index, boolean last) {
+        this.delegate = delegate;
+        this.timer = timer;
+        this.index = index;
+        this.last = last;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        FilterChainTimer.Timings timings = (FilterChainTimer.Timings) request.getAttribute(FilterChainTimer.ATTRIBUTE);
+        if (index == 0) {
+            if (timings != null) {
+                // the chain is applied again within the same request (forward / include), only time the outer pass
+                timings.nested++;
+                try {
+                    delegate.doFilter(request, response, chain);
+                } finally {
+                    timings.nested--;
+                }
+                return;
+            }
+            timings = timer.newTimings();
+            request.setAttribute(FilterChainTimer.ATTRIBUTE, timings);
+        } else if (timings == null || timings.nested > 0) {
+            delegate.doFilter(request, response, chain);
+            return;
+        }
+
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            delegate.doFilter(request, response, last ? application(timings, chain) : chain);
+            failed = false;
+        } finally {
+            timings.inclusive[index] = System.nanoTime() - start;
+            if (index == 0) {
+                request.removeAttribute(FilterChainTimer.ATTRIBUTE);
+                timer.record(request, response, timings, failed);
+            }
+        }
+    }
+
+    private FilterChain application(FilterChainTimer.Timings timings, FilterChain chain) {
+        return (request, response) -> {
+            timings.authentication = SecurityContextHolder.getContext().getAuthentication();
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                timings.inclusive[index + 1] = System.nanoTime() - start;
+            }
+        };
+    }
+
+    public Filter getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,24 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthoritySet;
+
+/*
+    Authentication of a request that presented a bearer token, as returned by BankTokenService.verify.
+    Kept apart from password logins so that a token is never exchanged for a fresh one.
+ */
+public class TokenAuthentication extends BankAuthenticationToken {
+
+    private static final long serialVersionUID = -3318870514620742301L;
+
+    private final long expiresAt;
+
+    public TokenAuthentication(String email, AuthoritySet authoritySet, long expiresAt) {
+        super(email, null, authoritySet);
+        this.expiresAt = expiresAt;
+    }
+
+    /* epoch seconds */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,241 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    URL authorization rules declared once and compiled at startup.
+
+    Patterns are split into path segments and stored in a trie (literal segments, '*' for one segment and a
+    trailing '**' for any remainder). The authorities of a rule are an AuthoritySet, so a hasRole / hasAnyRole check
+    is a lookup plus a bitwise AND against the set carried by the BankAuthenticationToken instead of walking ant
+    matchers and evaluating SpEL. When several patterns match,
+    the one declared first wins, like the antMatchers chain. Paths without a matching rule are permitted, which is
+    also what the antMatchers chain does without an anyRequest() rule. A trailing slash is ignored, so /myAccount/
+    is protected like /myAccount.
+
+    The same rules can still be applied to the expression based chain with applyTo().
+ */
+public final class UrlAuthorizationTable {
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final List<Rule> rules;
+
+    private final Node root = new Node();
+
+    private UrlAuthorizationTable(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(rules);
+        for (int order = 0; order < rules.size(); order++) {
+            Rule rule = rules.get(order);
+            root.insert(segments(rule.pattern), 0,
+                    new CompiledRule(order, rule.access, AuthorityRegistry.setOfNames(rule.authorities)));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /*
+        Index in getRules() of the rule deciding about the path, or -1 when no rule matches.
+     */
+    public int indexOf(String path) {
+        CompiledRule rule = root.match(segments(path), 0, null);
+        return rule == null ? -1 : rule.order;
+    }
+
+    public boolean isAllowed(String path, Authentication authentication) {
+        CompiledRule rule = root.match(segments(path), 0, null);
+        if (rule == null || rule.access == Access.PERMIT_ALL) {
+            return true;
+        }
+        if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+            return false;
+        }
+        return rule.access == Access.AUTHENTICATED || authoritySet(authentication).containsAny(rule.required);
+    }
+
+    private static AuthoritySet authoritySet(Authentication authentication) {
+        if (authentication instanceof BankAuthenticationToken) {
+            return ((BankAuthenticationToken) authentication).getAuthoritySet();
+        }
+        return AuthorityRegistry.setOf(authentication.getAuthorities());
+    }
+
+    /*
+        Registers the same rules with the expression based antMatchers chain.
+     */
+    public void applyTo(ExpressionUrlAuthorizationConfigurer<?>.ExpressionInterceptUrlRegistry requests) {
+        for (Rule rule : rules) {
+            ExpressionUrlAuthorizationConfigurer<?>.AuthorizedUrl url = requests.antMatchers(rule.pattern);
+            switch (rule.access) {
+                case PERMIT_ALL:
+                    url.permitAll();
+                    break;
+                case AUTHENTICATED:
+                    url.authenticated();
+                    break;
+                default:
+                    url.hasAnyAuthority(rule.authorities.toArray(new String[0]));
+            }
+        }
+    }
+
+    private static String[] segments(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.endsWith("/") && path.length() > start ? path.length() - 1 : path.length();
+        return start >= end ? new String[0] : path.substring(start, end).split("/", -1);
+    }
+
+    public enum Access {
+        PERMIT_ALL, AUTHENTICATED, ANY_AUTHORITY
+    }
+
+    public static final class Rule {
+
+        private final String pattern;
+
+        private final Access access;
+
+        private final List<String> authorities;
+
+        private Rule(String pattern, Access access, List<String> authorities) {
+            this.pattern = pattern;
+            this.access = access;
+            this.authorities = authorities;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public Access getAccess() {
+            return access;
+        }
+
+        public List<String> getAuthorities() {
+            return authorities;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        public Builder permitAll(String pattern) {
+            return add(pattern, Access.PERMIT_ALL, Collections.emptyList());
+        }
+
+        public Builder authenticated(String pattern) {
+            return add(pattern, Access.AUTHENTICATED, Collections.emptyList());
+        }
+
+        public Builder hasRole(String pattern, String role) {
+            return hasAnyRole(pattern, role);
+        }
+
+        public Builder hasAnyRole(String pattern, String... roles) {
+            List<String> authorities = new ArrayList<>();
+            for (String role : roles) {
+                authorities.add("ROLE_" + role);
+            }
+            return add(pattern, Access.ANY_AUTHORITY, authorities);
+        }
+
+        public Builder hasAnyAuthority(String pattern, String... authorities) {
+            return add(pattern, Access.ANY_AUTHORITY, List.of(authorities));
+        }
+
+        public UrlAuthorizationTable build() {
+            return new UrlAuthorizationTable(new ArrayList<>(rules));
+        }
+
+        private Builder add(String pattern, Access access, List<String> authorities) {
+            rules.add(new Rule(pattern, access, Collections.unmodifiableList(authorities)));
+            return this;
+        }
+    }
+
+    private static final class CompiledRule {
+
+        private final int order;
+
+        private final Access access;
+
+        private final AuthoritySet required;
+
+        private CompiledRule(int order, Access access, AuthoritySet required) {
+            this.order = order;
+            this.access = access;
+            this.required = required;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private Node anySegment;
+
+        private CompiledRule exact;
+
+        private CompiledRule remainder;
+
+        void insert(String[] segments, int index, CompiledRule rule) {
+            if (index == segments.length) {
+                exact = first(exact, rule);
+                return;
+            }
+            String segment = segments[index];
+            if ("**".equals(segment) && index == segments.length - 1) {
+                remainder = first(remainder, rule);
+                // '/a/**' also matches '/a'
+                exact = first(exact, rule);
+            } else if ("*".equals(segment)) {
+                if (anySegment == null) {
+                    anySegment = new Node();
+                }
+                anySegment.insert(segments, index + 1, rule);
+            } else {
+                children.computeIfAbsent(segment, s -> new Node()).insert(segments, index + 1, rule);
+            }
+        }
+
+        CompiledRule match(String[] segments, int index, CompiledRule best) {
+            best = first(best, remainder);
+            if (index == segments.length) {
+                return first(best, exact);
+            }
+            Node child = children.get(segments[index]);
+            if (child != null) {
+                best = child.match(segments, index + 1, best);
+            }
+            if (anySegment != null) {
+                best = anySegment.match(segments, index + 1, best);
+            }
+            return best;
+        }
+
+        private static CompiledRule first(CompiledRule current, CompiledRule candidate) {
+            if (candidate == null) {
+                return current;
+            }
+            return current == null || candidate.order < current.order ? candidate : current;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.springsecurity.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/*
+    Thrown when a username used up its budget of password verifications. It is translated to
+    429 Too Many Requests by OverloadAwareAuthenticationHandler instead of 401.
+ */
+public class UsernameRateLimitedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = -2361817405260949533L;
+
+    private final long retryAfterSeconds;
+
+    public UsernameRateLimitedException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,100 @@
+package com.springsecurity.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springsecurity.model.AuthoritySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/*
+    Remembers credentials that recently passed BCrypt so HTTP Basic clients, which resend the password
+    on every call, are authenticated without another hash or database lookup.
+
+    Entries are keyed by username and hold an HMAC-SHA256 of the presented password under a random
+    per-process key, so neither the password nor a reusable hash is ever kept in memory. A different
+    password for the same user is a miss. BankUserDetails.evictUser invalidates a user when the customer or its
+    authorities change through JPA. A change made directly in the database, and the old address of a customer
+    whose email changed, keep authenticating the old password with the old authorities for up to
+    bank.security.credential-cache.ttl-seconds (300 by default).
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+
+    private final SecretKeySpec digestKey;
+
+    private final Cache<String, VerifiedCredential> cache;
+
+    @Autowired
+    public VerifiedCredentialCache(@Value("${bank.security.credential-cache.enabled:true}") boolean enabled,
+                                   @Value("${bank.security.credential-cache.max-size:10000}") long maxSize,
+                                   @Value("${bank.security.credential-cache.ttl-seconds:300}") long ttlSeconds) {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.enabled = enabled;
+        this.digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public AuthoritySet getAuthorities(String username, String rawPassword) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedCredential credential = cache.getIfPresent(username);
+        if (credential == null || !MessageDigest.isEqual(credential.passwordDigest, digest(rawPassword))) {
+            return null;
+        }
+        return credential.authorities;
+    }
+
+    public void put(String username, String rawPassword, AuthoritySet authorities) {
+        if (enabled) {
+            cache.put(username, new VerifiedCredential(digest(rawPassword), authorities));
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private byte[] digest(String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static class VerifiedCredential {
+
+        private final byte[] passwordDigest;
+
+        private final AuthoritySet authorities;
+
+        private VerifiedCredential(byte[] passwordDigest, AuthoritySet authorities) {
+            this.passwordDigest = passwordDigest;
+            this.authorities = authorities;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.springsecurity.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/*
+    bank.threads.virtual=true runs every Tomcat request on its own virtual thread instead of the pool of
+    server.tomcat.threads.max platform threads, so a request waiting on JPA only parks a virtual thread.
+    DashboardQueryExecutor reads the same property. Needs Java 21 at runtime (mvn -P virtual-threads) and
+    fails at startup on older JVMs instead of silently running on platform threads.
+
+    The JDBC connection pool still bounds concurrent queries, and H2, Hikari and the MySQL driver use
+    synchronized blocks that pin the carrier thread while inside them; run with -Djdk.tracePinnedThreads=short
+    to see where. Password hashing stays on the bounded PasswordHashingExecutor, it is CPU bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bank.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private final ExecutorService requestExecutor = VirtualThreads.newThreadPerTaskExecutor("tomcat-virtual-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    /*
+        Tomcat does not shut down an executor it did not create.
+     */
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.springsecurity.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+    Virtual threads (Java 21) for a build that still targets Java 11, reached through reflection:
+        Thread.ofVirtual().name(prefix, 1).factory() and Executors.newThreadPerTaskExecutor(factory).
+    Only used when bank.threads.virtual=true, see VirtualThreadConfig.
+ */
+public final class VirtualThreads {
+
+    // Java 19 and 20 have the methods as a preview feature, which throws unless enabled
+    private static final Method OF_VIRTUAL =
+            Runtime.version().feature() >= 21 ? findMethod(Thread.class, "ofVirtual") : null;
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /*
+        Starts every task on a new virtual thread named prefix + counter, the executor never queues.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running on Java "
+                    + Runtime.version());
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
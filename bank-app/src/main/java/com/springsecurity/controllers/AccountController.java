@@ -1,10 +1,11 @@
 package com.springsecurity.controllers;
 
 
-import com.springsecurity.model.Accounts;
+import com.springsecurity.model.AccountView;
 import com.springsecurity.model.Customer;
 import com.springsecurity.repositories.AccountsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,7 +17,8 @@ public class AccountController {
     private AccountsRepository accountsRepository;
 
     @PostMapping("/myAccount")
-    public Accounts getAccountDetails(@RequestBody Customer customer) {
+    @Transactional(readOnly = true)
+    public AccountView getAccountDetails(@RequestBody Customer customer) {
         return accountsRepository.findByCustomerId(customer.getId());
     }
 }
@@ -0,0 +1,138 @@
+package com.springsecurity.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.model.NoticeChangedEvent;
+import com.springsecurity.repositories.NoticeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    In-memory snapshot of the active notices as ready-to-send JSON bytes plus a strong ETag.
+
+    The snapshot is rebuilt when the calendar day rolls over (the query takes today from the same clock, not
+    from the database's CURDATE(), so both roll over together), when a Notice
+    entity is written through JPA, or after bank.notices.cache.max-age-seconds to pick up changes made
+    directly in the database.
+ */
+@Component
+public class ActiveNoticesCache {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    private NoticeRepository noticeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bank.notices.cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    public ActiveNoticesCache() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ActiveNoticesCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!isFresh(current)) {
+                current = build();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @EventListener
+    public void onNoticeChanged(NoticeChangedEvent event) {
+        invalidate();
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && current.generation == generation.get()
+                && current.day.equals(LocalDate.now(clock))
+                && clock.millis() - current.builtAt < maxAgeSeconds * 1000;
+    }
+
+    private Snapshot build() {
+        // read the generation first so an invalidation racing with the query forces another rebuild
+        long buildGeneration = generation.get();
+        LocalDate day = LocalDate.now(clock);
+        try {
+            // a local date, rendered by the JDBC driver as that same day
+            byte[] body = objectMapper.writeValueAsBytes(noticeRepository.findAllActiveNotices(Date.valueOf(day)));
+            return new Snapshot(buildGeneration, day, clock.millis(), body, strongEtag(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize active notices", e);
+        }
+    }
+
+    public static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder etag = new StringBuilder("\"");
+            for (int i = 0; i < 16; i++) {
+                etag.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return etag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static final class Snapshot {
+
+        private final long generation;
+
+        private final LocalDate day;
+
+        private final long builtAt;
+
+        private final byte[] body;
+
+        private final String etag;
+
+        private Snapshot(long generation, LocalDate day, long builtAt, byte[] body, String etag) {
+            this.generation = generation;
+            this.day = day;
+            this.builtAt = builtAt;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
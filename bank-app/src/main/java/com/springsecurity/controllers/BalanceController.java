@@ -1,24 +1,73 @@
 package com.springsecurity.controllers;
 
-import com.springsecurity.model.AccountTransactions;
+import com.springsecurity.model.AccountTransactionView;
 import com.springsecurity.model.Customer;
 import com.springsecurity.repositories.AccountTransactionsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 
 @RestController
 public class BalanceController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final Date START_OF_TIME = toDate(LocalDate.of(1970, 1, 1));
+
+    public static final Date END_OF_TIME = toDate(LocalDate.of(9999, 12, 31));
+
     @Autowired
     private AccountTransactionsRepository accountTransactionsRepository;
 
+    @Value("${bank.balance.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${bank.balance.page-size.max:200}")
+    private int maxPageSize;
+
+    /*
+        Returns one page of transactions, newest first. When more rows exist, the X-Next-Cursor response header
+        holds the cursor to pass back for the next page. from/to are optional inclusive ISO dates.
+     */
     @PostMapping("/myBalance")
-    public List<AccountTransactions> getBalanceDetails(@RequestBody Customer customer) {
-        return accountTransactionsRepository.findByCustomerIdOrderByTransactionDtDesc(customer.getId());
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AccountTransactionView>> getBalanceDetails(
+            @RequestBody Customer customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        TransactionCursor position = cursor != null
+                ? TransactionCursor.decode(cursor)
+                : new TransactionCursor(to == null ? END_OF_TIME : toDate(to.plusDays(1)), "");
+
+        // fetch one extra row to find out whether there is a next page
+        List<AccountTransactionView> transactions = accountTransactionsRepository.findPageByCustomerId(customer.getId(),
+                from == null ? START_OF_TIME : toDate(from), position.getTransactionDt(), position.getTransactionId(),
+                PageRequest.of(0, pageSize + 1));
+        if (transactions.size() <= pageSize) {
+            return ResponseEntity.ok(transactions);
+        }
+        List<AccountTransactionView> page = transactions.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, TransactionCursor.after(page.get(pageSize - 1)).encode())
+                .body(page);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 }
@@ -1,9 +1,10 @@
 package com.springsecurity.controllers;
 
-import com.springsecurity.model.Cards;
+import com.springsecurity.model.CardView;
 import com.springsecurity.model.Customer;
 import com.springsecurity.repositories.CardsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,7 +19,8 @@ public class CardsController {
     private CardsRepository cardsRepository;
 
     @PostMapping("/myCards")
-    public List<Cards> getCardsDetails(@RequestBody Customer customer) {
+    @Transactional(readOnly = true)
+    public List<CardView> getCardsDetails(@RequestBody Customer customer) {
         return cardsRepository.findByCustomerId(customer.getId());
     }
 }
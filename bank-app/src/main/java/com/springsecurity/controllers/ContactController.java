@@ -1,7 +1,9 @@
 package com.springsecurity.controllers;
 
+import com.springsecurity.config.SortableIdGenerator;
 import com.springsecurity.model.Contact;
 import com.springsecurity.repositories.ContactRepository;
+import com.springsecurity.repositories.ContactWriteBehindQueue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -9,7 +11,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Date;
-import java.util.Random;
 
 @RestController
 public class ContactController {
@@ -17,16 +18,23 @@ public class ContactController {
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ContactWriteBehindQueue contactWriteBehindQueue;
+
+    @Autowired
+    private SortableIdGenerator idGenerator;
+
     @PostMapping("/contact")
     public Contact saveContactInquiryDetails(@RequestBody Contact contact) {
         contact.setContactId(getServiceReqNumber());
         contact.setCreateDt(new Date(System.currentTimeMillis()));
+        if (contactWriteBehindQueue.isEnabled()) {
+            return contactWriteBehindQueue.submit(contact);
+        }
         return contactRepository.save(contact);
     }
 
     public String getServiceReqNumber() {
-        Random random = new Random();
-        int ranNum = random.nextInt(999999999 - 9999) + 9999;
-        return "SR"+ranNum;
+        return idGenerator.nextContactId();
     }
 }
@@ -0,0 +1,143 @@
+package com.springsecurity.controllers;
+
+import com.springsecurity.config.DashboardQueryExecutor;
+import com.springsecurity.config.UrlAuthorizationTable;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.Dashboard;
+import com.springsecurity.repositories.AccountTransactionsRepository;
+import com.springsecurity.repositories.AccountsRepository;
+import com.springsecurity.repositories.CardsRepository;
+import com.springsecurity.repositories.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+    Aggregates /myAccount, /myBalance, /myLoans and /myCards into one call. The four queries run concurrently on
+    the bounded DashboardQueryExecutor; a section that fails, is rejected or takes longer than
+    bank.dashboard.section-timeout-ms is reported in unavailableSections while the others are still returned.
+    Each query runs in its own read-only transaction timing out at the same deadline, so the JDBC driver cancels
+    a query the request stopped waiting for (JDBC query timeouts are whole seconds, rounded up).
+ */
+@RestController
+public class DashboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private AccountTransactionsRepository accountTransactionsRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+
+    @Autowired
+    private UrlAuthorizationTable urlAuthorizationTable;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.dashboard.section-timeout-ms:1000}")
+    private long sectionTimeoutMillis;
+
+    @Value("${bank.dashboard.transactions:20}")
+    private int transactionCount;
+
+    @PostMapping("/myDashboard")
+    public Dashboard getDashboard(@RequestBody Customer customer, Authentication authentication) {
+        int customerId = customer.getId();
+        Dashboard dashboard = new Dashboard();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+
+        // same rules as the individual endpoints
+        CompletableFuture<Runnable> account = section(dashboard, "account", deadline,
+                urlAuthorizationTable.isAllowed("/myAccount", authentication),
+                () -> accountsRepository.findByCustomerId(customerId), dashboard::setAccount);
+        CompletableFuture<Runnable> transactions = section(dashboard, "transactions", deadline,
+                urlAuthorizationTable.isAllowed("/myBalance", authentication),
+                () -> accountTransactionsRepository.findPageByCustomerId(customerId, BalanceController.START_OF_TIME,
+                        BalanceController.END_OF_TIME, "", PageRequest.of(0, transactionCount)), dashboard::setTransactions);
+        CompletableFuture<Runnable> loans = section(dashboard, "loans", deadline,
+                urlAuthorizationTable.isAllowed("/myLoans", authentication),
+                () -> loanRepository.findByCustomerIdOrderByStartDtDesc(customerId), dashboard::setLoans);
+        CompletableFuture<Runnable> cards = section(dashboard, "cards", deadline,
+                urlAuthorizationTable.isAllowed("/myCards", authentication),
+                () -> cardsRepository.findByCustomerId(customerId), dashboard::setCards);
+
+        await(dashboard, "account", account, deadline);
+        await(dashboard, "transactions", transactions, deadline);
+        await(dashboard, "loans", loans, deadline);
+        await(dashboard, "cards", cards, deadline);
+        return dashboard;
+    }
+
+    /*
+        Starts the query of one section. The returned future yields the action that stores the result, so the
+        Dashboard is only ever modified on the request thread.
+     */
+    private <T> CompletableFuture<Runnable> section(Dashboard dashboard, String name, long deadline, boolean permitted,
+                                                    Supplier<T> query, Consumer<T> setter) {
+        if (!permitted) {
+            dashboard.getForbiddenSections().add(name);
+            return null;
+        }
+        return dashboardQueryExecutor.supply(() -> {
+            T result = queryBefore(deadline, query);
+            return () -> setter.accept(result);
+        });
+    }
+
+    private <T> T queryBefore(long deadline, Supplier<T> query) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+            // waited in the executor queue for longer than the request waits for it
+            throw new QueryTimeoutException("Dashboard section started after its deadline");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return transaction.execute(status -> query.get());
+    }
+
+    private void await(Dashboard dashboard, String name, CompletableFuture<Runnable> section, long deadline) {
+        if (section == null) {
+            return;
+        }
+        try {
+            section.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).run();
+        } catch (TimeoutException e) {
+            section.cancel(true);
+            dashboard.getUnavailableSections().add(name);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed", name, e.getCause());
+            dashboard.getUnavailableSections().add(name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dashboard.getUnavailableSections().add(name);
+        }
+    }
+}
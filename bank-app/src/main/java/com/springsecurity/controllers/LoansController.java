@@ -1,9 +1,10 @@
 package com.springsecurity.controllers;
 
 import com.springsecurity.model.Customer;
-import com.springsecurity.model.Loans;
+import com.springsecurity.model.LoanView;
 import com.springsecurity.repositories.LoanRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,7 +19,8 @@ public class LoansController {
     private LoanRepository loanRepository;
 
     @PostMapping("/myLoans")
-    public List<Loans> getLoansDetails(@RequestBody Customer customer) {
+    @Transactional(readOnly = true)
+    public List<LoanView> getLoansDetails(@RequestBody Customer customer) {
         return loanRepository.findByCustomerIdOrderByStartDtDesc(customer.getId());
     }
 }
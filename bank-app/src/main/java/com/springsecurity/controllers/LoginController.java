@@ -1,12 +1,16 @@
 package com.springsecurity.controllers;
 
-import com.springsecurity.model.Customer;
+import com.springsecurity.config.BankTokenService;
+import com.springsecurity.model.CustomerView;
 import com.springsecurity.repositories.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import java.security.Principal;
 import java.util.List;
 
@@ -16,11 +20,20 @@ public class LoginController {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private BankTokenService bankTokenService;
+
     @RequestMapping("/user")
-    public Customer getUserDetailsAfterLogin(Principal user) {
-        List<Customer> customers = customerRepository.findByEmail(user.getName());
+    public CustomerView getUserDetailsAfterLogin(Principal user, HttpServletResponse response) {
+        List<CustomerView> customers = customerRepository.findByEmail(user.getName());
         if (customers.size() > 0) {
-            return customers.get(0);
+            CustomerView customer = customers.get(0);
+            if (user instanceof Authentication && bankTokenService.canIssueFor((Authentication) user)) {
+                String token = bankTokenService.issue(customer.getId(), customer.getEmail(),
+                        ((Authentication) user).getAuthorities());
+                response.setHeader(HttpHeaders.AUTHORIZATION, BankTokenService.BEARER_PREFIX + token);
+            }
+            return customer;
         }
         return null;
     }
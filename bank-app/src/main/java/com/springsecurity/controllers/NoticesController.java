@@ -1,21 +1,32 @@
 package com.springsecurity.controllers;
 
-import com.springsecurity.model.Notice;
-import com.springsecurity.repositories.NoticeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 public class NoticesController {
 
     @Autowired
-    private NoticeRepository noticeRepository;
+    private ActiveNoticesCache activeNoticesCache;
 
+    /*
+        Served from the precomputed snapshot; clients revalidating with If-None-Match get a 304 without a body.
+     */
     @GetMapping("/notices")
-    public List<Notice> getNotices() {
-        return noticeRepository.findAllActiveNotices();
+    public ResponseEntity<byte[]> getNotices(WebRequest request) {
+        ActiveNoticesCache.Snapshot notices = activeNoticesCache.get();
+        if (request.checkNotModified(notices.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(notices.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(notices.getBody());
     }
 }
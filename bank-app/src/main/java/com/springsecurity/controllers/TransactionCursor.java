@@ -0,0 +1,52 @@
+package com.springsecurity.controllers;
+
+import com.springsecurity.model.AccountTransactionView;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/*
+    Opaque position in a customer's transaction history, encoded as base64url("<epoch millis>:<transaction id>").
+ */
+public final class TransactionCursor {
+
+    private final Date transactionDt;
+
+    private final String transactionId;
+
+    public TransactionCursor(Date transactionDt, String transactionId) {
+        this.transactionDt = transactionDt;
+        this.transactionId = transactionId;
+    }
+
+    public static TransactionCursor after(AccountTransactionView transaction) {
+        return new TransactionCursor(transaction.getTransactionDt(), transaction.getTransactionId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new TransactionCursor(new Date(Long.parseLong(decoded.substring(0, separator))),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = transactionDt.getTime() + ":" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Date getTransactionDt() {
+        return transactionDt;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+}
@@ -0,0 +1,162 @@
+package com.springsecurity.controllers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.config.BankUserDetails;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.SecurityCustomer;
+import com.springsecurity.repositories.AccountTransactionsExportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static com.springsecurity.repositories.AccountTransactionsExportRepository.COLUMNS;
+
+/*
+    Streams the full transaction history for statement and reconciliation jobs as NDJSON (default) or CSV.
+    Rows are written as they come off the JDBC cursor and flushed every bank.export.flush-every rows,
+    so heap use stays flat regardless of history length.
+    Only the customer's own history can be exported, a foreign customer id is answered with 403.
+ */
+@RestController
+public class TransactionExportController {
+
+    @Autowired
+    private AccountTransactionsExportRepository exportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BankUserDetails bankUserDetails;
+
+    @Value("${bank.export.flush-every:1000}")
+    private int flushEvery;
+
+    @PostMapping("/myTransactions/export")
+    public void exportTransactions(@RequestBody Customer customer,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   Authentication authentication,
+                                   HttpServletResponse response) throws IOException {
+        UserDetails user = bankUserDetails.loadUserByUsername(authentication.getName());
+        if (!(user instanceof SecurityCustomer) || ((SecurityCustomer) user).getId() != customer.getId()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Transactions of another customer");
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"");
+            exportCsv(customer.getId(), response);
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            exportNdjson(customer.getId(), response);
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+
+    private void exportNdjson(int customerId, HttpServletResponse response) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            json.setRootValueSeparator(null);
+            int[] rows = {0};
+            exportRepository.forEachByCustomerId(customerId, resultSet -> {
+                try {
+                    writeJsonRow(json, resultSet);
+                    if (++rows[0] % flushEvery == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void exportCsv(int customerId, HttpServletResponse response) throws IOException {
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8))) {
+            csv.write(String.join(",", COLUMNS));
+            csv.write("\r\n");
+            int[] rows = {0};
+            exportRepository.forEachByCustomerId(customerId, resultSet -> {
+                try {
+                    writeCsvRow(csv, resultSet);
+                    if (++rows[0] % flushEvery == 0) {
+                        csv.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeJsonRow(JsonGenerator json, ResultSet resultSet) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeStringField("transactionId", resultSet.getString(1));
+        json.writeNumberField("accountNumber", resultSet.getLong(2));
+        json.writeNumberField("customerId", resultSet.getInt(3));
+        json.writeStringField("transactionDt", isoDate(resultSet.getObject(4, LocalDate.class)));
+        json.writeStringField("transactionSummary", resultSet.getString(5));
+        json.writeStringField("transactionType", resultSet.getString(6));
+        json.writeNumberField("transactionAmt", resultSet.getInt(7));
+        json.writeNumberField("closingBalance", resultSet.getInt(8));
+        json.writeStringField("createDt", resultSet.getString(9));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsvRow(Writer csv, ResultSet resultSet) throws IOException, SQLException {
+        csv.write(csvField(resultSet.getString(1)));
+        csv.write(',');
+        csv.write(Long.toString(resultSet.getLong(2)));
+        csv.write(',');
+        csv.write(Integer.toString(resultSet.getInt(3)));
+        csv.write(',');
+        csv.write(csvField(isoDate(resultSet.getObject(4, LocalDate.class))));
+        csv.write(',');
+        csv.write(csvField(resultSet.getString(5)));
+        csv.write(',');
+        csv.write(csvField(resultSet.getString(6)));
+        csv.write(',');
+        csv.write(Integer.toString(resultSet.getInt(7)));
+        csv.write(',');
+        csv.write(Integer.toString(resultSet.getInt(8)));
+        csv.write(',');
+        csv.write(csvField(resultSet.getString(9)));
+        csv.write("\r\n");
+    }
+
+    // transaction_dt is a DATE, read without a time zone so the day never shifts
+    private static String isoDate(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
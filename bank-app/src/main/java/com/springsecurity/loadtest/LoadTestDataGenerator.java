@@ -0,0 +1,234 @@
+package com.springsecurity.loadtest;
+
+import com.springsecurity.config.SortableIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Seeds the loadtest database once all beans are created, before the web server starts accepting requests.
+
+    Customers are customer<id>@loadtest.bank with the password bank.loadtest.password; the BCrypt hash is computed
+    once and shared by all of them. Every customer has ROLE_USER, 10% also have ROLE_ADMIN and 1% ROLE_ROOT.
+    Transactions per customer follow a Pareto distribution (alpha 1.5) with bank.loadtest.transactions-per-customer
+    as mean, so most customers have a handful of transactions and a few have thousands, like real accounts.
+
+    Customers are generated in chunks of CHUNK_SIZE on bank.loadtest.generator-threads threads with JDBC batch
+    inserts. Ids are derived from the customer id (customer * 4 + n), so chunks never have to coordinate.
+    For millions of rows, point spring.datasource.url at a jdbc:h2:file: database and give the JVM enough heap.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final double PARETO_ALPHA = 1.5;
+
+    private static final String[] TRANSACTION_SUMMARIES = {"Coffee Shop", "Uber", "Amazon", "Online Transfer",
+            "Electricity Bill", "Grocery Store", "Salary", "Restaurant", "Fuel Station", "Rent"};
+
+    private static final String[] LOAN_TYPES = {"Home", "Vehicle", "Personal", "Education"};
+
+    private static final String[] CARD_TYPES = {"Credit", "Debit", "Prepaid"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SortableIdGenerator idGenerator;
+
+    @Value("${bank.loadtest.customers:10000}")
+    private int customers;
+
+    @Value("${bank.loadtest.transactions-per-customer:20}")
+    private int transactionsPerCustomer;
+
+    @Value("${bank.loadtest.max-transactions-per-customer:5000}")
+    private int maxTransactionsPerCustomer;
+
+    @Value("${bank.loadtest.notices:20}")
+    private int notices;
+
+    @Value("${bank.loadtest.password:12345}")
+    private String password;
+
+    @Value("${bank.loadtest.generator-threads:0}")
+    private int threads;
+
+    @Value("${bank.loadtest.seed:42}")
+    private long seed;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from customer", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Load test database already holds {} customers, skipping data generation", existing);
+            return;
+        }
+        long start = System.nanoTime();
+        String encodedPassword = passwordEncoder.encode(password);
+        insertNotices();
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            List<Future<Long>> chunks = new ArrayList<>();
+            for (int first = 1; first <= customers; first += CHUNK_SIZE) {
+                int from = first;
+                int to = Math.min(customers, first + CHUNK_SIZE - 1);
+                chunks.add(executor.submit(() -> generateChunk(from, to, encodedPassword)));
+            }
+            long transactions = 0;
+            for (Future<Long> chunk : chunks) {
+                transactions += chunk.get();
+            }
+            // ids generated by the application must not collide with the seeded ones
+            jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + ((long) customers * 4 + 4));
+            log.info("Generated {} customers and {} transactions on {} threads in {} ms", customers, transactions,
+                    poolSize, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long generateChunk(int from, int to, String encodedPassword) {
+        SplittableRandom random = new SplittableRandom(seed + from);
+        LocalDate today = LocalDate.now();
+        List<Object[]> customerRows = new ArrayList<>(CHUNK_SIZE);
+        List<Object[]> authorityRows = new ArrayList<>(CHUNK_SIZE + CHUNK_SIZE / 8);
+        List<Object[]> accountRows = new ArrayList<>(CHUNK_SIZE);
+        List<Object[]> loanRows = new ArrayList<>(CHUNK_SIZE * 2);
+        List<Object[]> cardRows = new ArrayList<>(CHUNK_SIZE * 2);
+        List<Object[]> transactionRows = new ArrayList<>(BATCH_SIZE);
+        long transactions = 0;
+
+        for (int customerId = from; customerId <= to; customerId++) {
+            long accountNumber = 1_000_000_000L + customerId;
+            String createDt = today.minusDays(random.nextInt(3650)).toString();
+            customerRows.add(new Object[]{customerId, "Customer " + customerId, email(customerId),
+                    String.format("9%09d", customerId), encodedPassword, "user", createDt});
+            authorityRows.add(new Object[]{(long) customerId * 4, customerId, "ROLE_USER"});
+            double role = random.nextDouble();
+            if (role < 0.10) {
+                authorityRows.add(new Object[]{(long) customerId * 4 + 1, customerId, "ROLE_ADMIN"});
+            }
+            if (role < 0.01) {
+                authorityRows.add(new Object[]{(long) customerId * 4 + 2, customerId, "ROLE_ROOT"});
+            }
+            accountRows.add(new Object[]{customerId, accountNumber, random.nextInt(5) == 0 ? "Checking" : "Savings",
+                    (100 + random.nextInt(900)) + " Main Street, New York", createDt});
+
+            int loans = weightedCount(random, 0.40, 0.75, 0.95);
+            for (int n = 0; n < loans; n++) {
+                int total = 1000 * (5 + random.nextInt(500));
+                int paid = random.nextInt(total);
+                loanRows.add(new Object[]{customerId * 4 + n, customerId,
+                        Date.valueOf(today.minusDays(random.nextInt(3650))), LOAN_TYPES[random.nextInt(LOAN_TYPES.length)],
+                        total, paid, total - paid, createDt});
+            }
+            int cards = 1 + weightedCount(random, 0.60, 0.90, 1.0);
+            for (int n = 0; n < cards; n++) {
+                int limit = 1000 * (1 + random.nextInt(50));
+                int used = random.nextInt(limit);
+                cardRows.add(new Object[]{customerId * 4 + n, String.format("4%015d", (long) customerId * 4 + n),
+                        customerId, CARD_TYPES[random.nextInt(CARD_TYPES.length)], limit, used, limit - used,
+                        Date.valueOf(createDt)});
+            }
+
+            int count = transactionCount(random);
+            int balance = 1000 + random.nextInt(100_000);
+            for (int n = 0; n < count; n++) {
+                boolean deposit = random.nextInt(4) == 0;
+                int amount = (int) Math.min(50_000, Math.exp(2 + random.nextDouble() * 6));
+                balance += deposit ? amount : -amount;
+                transactionRows.add(new Object[]{idGenerator.nextTransactionId(), accountNumber, customerId,
+                        Date.valueOf(today.minusDays(random.nextInt(730))),
+                        TRANSACTION_SUMMARIES[random.nextInt(TRANSACTION_SUMMARIES.length)],
+                        deposit ? "Deposit" : "Withdrawal", amount, balance, createDt});
+                if (transactionRows.size() == BATCH_SIZE) {
+                    insertTransactions(transactionRows);
+                    transactions += transactionRows.size();
+                    transactionRows.clear();
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate("insert into customer (customer_id, name, email, mobile_number, pwd, role, create_dt) " +
+                "values (?, ?, ?, ?, ?, ?, ?)", customerRows);
+        jdbcTemplate.batchUpdate("insert into authorities (id, customer_id, name) values (?, ?, ?)", authorityRows);
+        jdbcTemplate.batchUpdate("insert into accounts (customer_id, account_number, account_type, branch_address, " +
+                "create_dt) values (?, ?, ?, ?, ?)", accountRows);
+        jdbcTemplate.batchUpdate("insert into loans (loan_number, customer_id, start_dt, loan_type, total_loan, " +
+                "amount_paid, outstanding_amount, create_dt) values (?, ?, ?, ?, ?, ?, ?, ?)", loanRows);
+        jdbcTemplate.batchUpdate("insert into cards (card_id, card_number, customer_id, card_type, total_limit, " +
+                "amount_used, available_amount, create_dt) values (?, ?, ?, ?, ?, ?, ?, ?)", cardRows);
+        insertTransactions(transactionRows);
+        return transactions + transactionRows.size();
+    }
+
+    private void insertTransactions(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into account_transactions (transaction_id, account_number, customer_id, " +
+                "transaction_dt, transaction_summary, transaction_type, transaction_amt, closing_balance, create_dt) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertNotices() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(notices);
+        for (int noticeId = 1; noticeId <= notices; noticeId++) {
+            // two thirds are active today, the rest expired
+            LocalDate begin = today.minusDays(noticeId * 7L);
+            LocalDate end = noticeId % 3 == 0 ? today.minusDays(1) : today.plusDays(30L * noticeId);
+            rows.add(new Object[]{noticeId, "Notice " + noticeId, "Details of notice " + noticeId,
+                    Date.valueOf(begin), Date.valueOf(end), Date.valueOf(begin), null});
+        }
+        jdbcTemplate.batchUpdate("insert into notice_details (notice_id, notice_summary, notice_details, notic_beg_dt, " +
+                "notic_end_dt, create_dt, update_dt) values (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private int transactionCount(SplittableRandom random) {
+        double scale = transactionsPerCustomer * (PARETO_ALPHA - 1) / PARETO_ALPHA;
+        double count = scale / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA);
+        return (int) Math.min(maxTransactionsPerCustomer, count);
+    }
+
+    // 0, 1, 2 or 3 with the given cumulative probabilities for 0, 1 and 2
+    private static int weightedCount(SplittableRandom random, double zero, double one, double two) {
+        double value = random.nextDouble();
+        return value < zero ? 0 : value < one ? 1 : value < two ? 2 : 3;
+    }
+
+    public static String email(int customerId) {
+        return "customer" + customerId + "@loadtest.bank";
+    }
+}
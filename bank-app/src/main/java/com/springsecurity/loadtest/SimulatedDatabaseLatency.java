@@ -0,0 +1,74 @@
+package com.springsecurity.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/*
+    Makes the embedded database as slow as a remote one: with bank.loadtest.db-latency-ms > 0 every connection
+    checkout sleeps that long while holding the connection, like a query waiting on the network. Starts once the
+    application is ready, so migrations and LoadTestDataGenerator run at full speed.
+
+    Used to compare platform and virtual request threads (bank.threads.virtual) with thousands of concurrent
+    clients. Raise spring.datasource.hikari.maximum-pool-size as well, otherwise both wait on the pool.
+ */
+@Component
+@Profile("loadtest")
+public class SimulatedDatabaseLatency implements BeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    private final long latencyMillis;
+
+    private volatile boolean active;
+
+    public SimulatedDatabaseLatency(@Value("${bank.loadtest.db-latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (latencyMillis <= 0 || !(bean instanceof DataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource((DataSource) bean) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                delay(connection);
+                return connection;
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                Connection connection = super.getConnection(username, password);
+                delay(connection);
+                return connection;
+            }
+        };
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        active = true;
+    }
+
+    private void delay(Connection connection) throws SQLException {
+        if (!active) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            connection.close();
+            throw new SQLException("Interrupted while simulating database latency", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.springsecurity.model;
+
+import java.util.Date;
+
+/*
+    One transaction of /myBalance and of the dashboard, same JSON as the AccountTransactions entity.
+ */
+public final class AccountTransactionView {
+
+    private final String transactionId;
+
+    private final long accountNumber;
+
+    private final int customerId;
+
+    private final Date transactionDt;
+
+    private final String transactionSummary;
+
+    private final String transactionType;
+
+    private final int transactionAmt;
+
+    private final int closingBalance;
+
+    private final String createDt;
+
+    public AccountTransactionView(String transactionId, long accountNumber, int customerId, Date transactionDt,
+                                  String transactionSummary, String transactionType, int transactionAmt,
+                                  int closingBalance, String createDt) {
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.customerId = customerId;
+        this.transactionDt = transactionDt;
+        this.transactionSummary = transactionSummary;
+        this.transactionType = transactionType;
+        this.transactionAmt = transactionAmt;
+        this.closingBalance = closingBalance;
+        this.createDt = createDt;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public Date getTransactionDt() {
+        return transactionDt;
+    }
+
+    public String getTransactionSummary() {
+        return transactionSummary;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public int getTransactionAmt() {
+        return transactionAmt;
+    }
+
+    public int getClosingBalance() {
+        return closingBalance;
+    }
+
+    public String getCreateDt() {
+        return createDt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.springsecurity.model;
+
+/*
+    Read model of /myAccount and the account section of /myDashboard, same JSON as the Accounts entity.
+ */
+public final class AccountView {
+
+    private final int customerId;
+
+    private final long accountNumber;
+
+    private final String accountType;
+
+    private final String branchAddress;
+
+    private final String createDt;
+
+    public AccountView(int customerId, long accountNumber, String accountType, String branchAddress, String createDt) {
+        this.customerId = customerId;
+        this.accountNumber = accountNumber;
+        this.accountType = accountType;
+        this.branchAddress = branchAddress;
+        this.createDt = createDt;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public String getBranchAddress() {
+        return branchAddress;
+    }
+
+    public String getCreateDt() {
+        return createDt;
+    }
+}
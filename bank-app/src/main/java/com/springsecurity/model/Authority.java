@@ -4,6 +4,7 @@ import javax.persistence.*;
 
 @Entity
 @Table(name = "authorities")
+@EntityListeners(CustomerChangeListener.class)
 public class Authority {
 
     @Id
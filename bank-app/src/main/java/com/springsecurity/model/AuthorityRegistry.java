@@ -0,0 +1,78 @@
+package com.springsecurity.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Process wide registry of canonical authorities, similar to String.intern(). Every authority name maps to
+    one RegisteredAuthority with a small integer id. The roles of the bank are registered when the class is
+    loaded, names first seen at runtime (from the authorities table or a token) get the next free id.
+
+    AuthoritySets are cached by their list of names as well, so customers sharing the same roles share one
+    instance and building the authorities of a login allocates nothing once the combination has been seen.
+ */
+public final class AuthorityRegistry {
+
+    private static final int MAX_CACHED_SETS = 1024;
+
+    private static final ConcurrentHashMap<String, RegisteredAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<List<String>, AuthoritySet> SETS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    static {
+        for (String name : List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_ROOT")) {
+            authority(name);
+        }
+    }
+
+    private AuthorityRegistry() {
+    }
+
+    public static RegisteredAuthority authority(String name) {
+        RegisteredAuthority authority = AUTHORITIES.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        return AUTHORITIES.computeIfAbsent(name, n -> new RegisteredAuthority(n, NEXT_ID.getAndIncrement()));
+    }
+
+    /*
+        Set of the given authority names.
+     */
+    public static AuthoritySet setOfNames(List<String> names) {
+        AuthoritySet set = SETS.get(names);
+        if (set != null) {
+            return set;
+        }
+        List<RegisteredAuthority> authorities = new ArrayList<>(names.size());
+        for (String name : names) {
+            authorities.add(authority(name));
+        }
+        set = AuthoritySet.of(authorities);
+        if (SETS.size() < MAX_CACHED_SETS) {
+            AuthoritySet existing = SETS.putIfAbsent(List.copyOf(names), set);
+            return existing != null ? existing : set;
+        }
+        return set;
+    }
+
+    /*
+        Set of arbitrary GrantedAuthority instances, e.g. of an Authentication not created by this application.
+     */
+    public static AuthoritySet setOf(Collection<? extends GrantedAuthority> grantedAuthorities) {
+        List<RegisteredAuthority> authorities = new ArrayList<>(grantedAuthorities.size());
+        for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+            if (grantedAuthority.getAuthority() != null) {
+                authorities.add(authority(grantedAuthority.getAuthority()));
+            }
+        }
+        return AuthoritySet.of(authorities);
+    }
+}
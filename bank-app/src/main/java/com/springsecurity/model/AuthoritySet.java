@@ -0,0 +1,113 @@
+package com.springsecurity.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/*
+    Immutable set of registered authorities stored as a bitset indexed by RegisteredAuthority.getId(),
+    so hasRole / hasAnyRole style checks are a few bitwise ANDs without any allocation.
+    asList() is built once and can be returned from getAuthorities() as is.
+ */
+public final class AuthoritySet implements Serializable {
+
+    private static final long serialVersionUID = -2384749129380542127L;
+
+    public static final AuthoritySet EMPTY = new AuthoritySet(new long[0], Collections.emptyList());
+
+    private final long[] bits;
+
+    private final List<GrantedAuthority> authorities;
+
+    private AuthoritySet(long[] bits, List<GrantedAuthority> authorities) {
+        this.bits = bits;
+        this.authorities = authorities;
+    }
+
+    static AuthoritySet of(Collection<RegisteredAuthority> registered) {
+        int maxId = -1;
+        for (RegisteredAuthority authority : registered) {
+            maxId = Math.max(maxId, authority.getId());
+        }
+        if (maxId < 0) {
+            return EMPTY;
+        }
+        long[] bits = new long[(maxId >> 6) + 1];
+        List<GrantedAuthority> authorities = new ArrayList<>(registered.size());
+        for (RegisteredAuthority authority : registered) {
+            long bit = 1L << authority.getId();
+            if ((bits[authority.getId() >> 6] & bit) == 0) {
+                bits[authority.getId() >> 6] |= bit;
+                authorities.add(authority);
+            }
+        }
+        return new AuthoritySet(bits, Collections.unmodifiableList(authorities));
+    }
+
+    public boolean contains(RegisteredAuthority authority) {
+        int word = authority.getId() >> 6;
+        return word < bits.length && (bits[word] & (1L << authority.getId())) != 0;
+    }
+
+    public boolean containsAny(AuthoritySet other) {
+        int words = Math.min(bits.length, other.bits.length);
+        for (int i = 0; i < words; i++) {
+            if ((bits[i] & other.bits[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return bits.length == 0;
+    }
+
+    public List<GrantedAuthority> asList() {
+        return authorities;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof AuthoritySet && Arrays.equals(bits, ((AuthoritySet) obj).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        return authorities.toString();
+    }
+
+    // bits are only meaningful within one process, so the set is serialized by name
+    private Object writeReplace() {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return new SerializedForm(names);
+    }
+
+    private static class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> names;
+
+        private SerializedForm(List<String> names) {
+            this.names = names;
+        }
+
+        private Object readResolve() {
+            return AuthorityRegistry.setOfNames(names);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.springsecurity.model;
+
+import java.util.Date;
+
+/*
+    One card of /myCards and of the dashboard, same JSON as the Cards entity.
+ */
+public final class CardView {
+
+    private final int cardId;
+
+    private final int customerId;
+
+    private final String cardNumber;
+
+    private final String cardType;
+
+    private final int totalLimit;
+
+    private final int amountUsed;
+
+    private final int availableAmount;
+
+    private final Date createDt;
+
+    public CardView(int cardId, int customerId, String cardNumber, String cardType, int totalLimit, int amountUsed,
+                    int availableAmount, Date createDt) {
+        this.cardId = cardId;
+        this.customerId = customerId;
+        this.cardNumber = cardNumber;
+        this.cardType = cardType;
+        this.totalLimit = totalLimit;
+        this.amountUsed = amountUsed;
+        this.availableAmount = availableAmount;
+        this.createDt = createDt;
+    }
+
+    public int getCardId() {
+        return cardId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public String getCardType() {
+        return cardType;
+    }
+
+    public int getTotalLimit() {
+        return totalLimit;
+    }
+
+    public int getAmountUsed() {
+        return amountUsed;
+    }
+
+    public int getAvailableAmount() {
+        return availableAmount;
+    }
+
+    public Date getCreateDt() {
+        return createDt;
+    }
+}
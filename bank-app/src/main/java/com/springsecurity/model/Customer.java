@@ -6,6 +6,7 @@ import javax.persistence.*;
 import java.util.Set;
 
 @Entity
+@EntityListeners(CustomerChangeListener.class)
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
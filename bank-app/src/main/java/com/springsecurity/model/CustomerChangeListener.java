@@ -0,0 +1,29 @@
+package com.springsecurity.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/*
+    JPA entity listener of Customer and Authority, so that cached credentials and authorities are dropped as soon
+    as the password, the roles or the customer itself change. Like NoticeChangeListener it is obtained from the
+    Spring bean container.
+ */
+public class CustomerChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void customerChanged(Object entity) {
+        Customer customer = entity instanceof Authority ? ((Authority) entity).getCustomer() : (Customer) entity;
+        if (customer != null && customer.getEmail() != null) {
+            eventPublisher.publishEvent(new CustomerChangedEvent(customer.getEmail()));
+        }
+    }
+}
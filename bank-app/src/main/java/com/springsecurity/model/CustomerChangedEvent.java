@@ -0,0 +1,18 @@
+package com.springsecurity.model;
+
+/*
+    Published by CustomerChangeListener after a Customer is updated or deleted, or one of its authorities is
+    inserted, updated or deleted through JPA.
+ */
+public class CustomerChangedEvent {
+
+    private final String email;
+
+    public CustomerChangedEvent(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,41 @@
+package com.springsecurity.model;
+
+import java.util.List;
+
+/*
+    Immutable read model used by authentication. It is built from a single scalar query
+    and is never attached to a persistence context, unlike the Customer entity.
+ */
+public final class CustomerPrincipal {
+
+    private final int id;
+
+    private final String email;
+
+    private final String pwd;
+
+    private final List<String> authorityNames;
+
+    public CustomerPrincipal(int id, String email, String pwd, List<String> authorityNames) {
+        this.id = id;
+        this.email = email;
+        this.pwd = pwd;
+        this.authorityNames = List.copyOf(authorityNames);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPwd() {
+        return pwd;
+    }
+
+    public List<String> getAuthorityNames() {
+        return authorityNames;
+    }
+}
@@ -0,0 +1,53 @@
+package com.springsecurity.model;
+
+/*
+    Read model of /user: the Customer entity without password and authorities. Loaded with a constructor
+    expression, so the eagerly mapped authorities are never fetched and nothing enters the persistence context.
+ */
+public final class CustomerView {
+
+    private final int id;
+
+    private final String name;
+
+    private final String email;
+
+    private final String mobileNumber;
+
+    private final String role;
+
+    private final String createDt;
+
+    public CustomerView(int id, String name, String email, String mobileNumber, String role, String createDt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.mobileNumber = mobileNumber;
+        this.role = role;
+        this.createDt = createDt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getCreateDt() {
+        return createDt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.springsecurity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Response of /myDashboard. Sections the customer may not see are listed in forbiddenSections, sections that
+    failed or did not answer in time are listed in unavailableSections; both are left null.
+ */
+public class Dashboard {
+
+    private AccountView account;
+
+    private List<AccountTransactionView> transactions;
+
+    private List<LoanView> loans;
+
+    private List<CardView> cards;
+
+    private final List<String> forbiddenSections = new ArrayList<>();
+
+    private final List<String> unavailableSections = new ArrayList<>();
+
+    public AccountView getAccount() {
+        return account;
+    }
+
+    public void setAccount(AccountView account) {
+        this.account = account;
+    }
+
+    public List<AccountTransactionView> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<AccountTransactionView> transactions) {
+        this.transactions = transactions;
+    }
+
+    public List<LoanView> getLoans() {
+        return loans;
+    }
+
+    public void setLoans(List<LoanView> loans) {
+        this.loans = loans;
+    }
+
+    public List<CardView> getCards() {
+        return cards;
+    }
+
+    public void setCards(List<CardView> cards) {
+        this.cards = cards;
+    }
+
+    public List<String> getForbiddenSections() {
+        return forbiddenSections;
+    }
+
+    public List<String> getUnavailableSections() {
+        return unavailableSections;
+    }
+}
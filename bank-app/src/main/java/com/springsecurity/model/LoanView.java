@@ -0,0 +1,69 @@
+package com.springsecurity.model;
+
+import java.util.Date;
+
+/*
+    One loan of /myLoans and of the dashboard, same JSON as the Loans entity.
+ */
+public final class LoanView {
+
+    private final int loanNumber;
+
+    private final int customerId;
+
+    private final Date startDt;
+
+    private final String loanType;
+
+    private final int totalLoan;
+
+    private final int amountPaid;
+
+    private final int outstandingAmount;
+
+    private final String createDt;
+
+    public LoanView(int loanNumber, int customerId, Date startDt, String loanType, int totalLoan, int amountPaid,
+                    int outstandingAmount, String createDt) {
+        this.loanNumber = loanNumber;
+        this.customerId = customerId;
+        this.startDt = startDt;
+        this.loanType = loanType;
+        this.totalLoan = totalLoan;
+        this.amountPaid = amountPaid;
+        this.outstandingAmount = outstandingAmount;
+        this.createDt = createDt;
+    }
+
+    public int getLoanNumber() {
+        return loanNumber;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public Date getStartDt() {
+        return startDt;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+
+    public int getTotalLoan() {
+        return totalLoan;
+    }
+
+    public int getAmountPaid() {
+        return amountPaid;
+    }
+
+    public int getOutstandingAmount() {
+        return outstandingAmount;
+    }
+
+    public String getCreateDt() {
+        return createDt;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Date;
 
 @Entity
 @Table(name = "notice_details")
+@EntityListeners(NoticeChangeListener.class)
 public class Notice {
 
     @Id
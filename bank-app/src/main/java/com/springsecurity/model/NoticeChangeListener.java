@@ -0,0 +1,24 @@
+package com.springsecurity.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/*
+    JPA entity listener; Hibernate obtains it from the Spring bean container, so it can be autowired.
+ */
+public class NoticeChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void noticeChanged(Notice notice) {
+        eventPublisher.publishEvent(new NoticeChangedEvent(notice.getNoticeId()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.springsecurity.model;
+
+/*
+    Published by NoticeChangeListener after a Notice is inserted, updated or deleted through JPA.
+ */
+public class NoticeChangedEvent {
+
+    private final int noticeId;
+
+    public NoticeChangedEvent(int noticeId) {
+        this.noticeId = noticeId;
+    }
+
+    public int getNoticeId() {
+        return noticeId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.springsecurity.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/*
+    Canonical GrantedAuthority handed out by AuthorityRegistry. There is one instance per authority name,
+    and its id is the bit used for it in every AuthoritySet.
+ */
+public final class RegisteredAuthority implements GrantedAuthority {
+
+    private static final long serialVersionUID = 4279341869613504164L;
+
+    private final String authority;
+
+    private final transient int id;
+
+    RegisteredAuthority(String authority, int id) {
+        this.authority = authority;
+        this.id = id;
+    }
+
+    @Override
+    public String getAuthority() {
+        return authority;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof RegisteredAuthority
+                && authority.equals(((RegisteredAuthority) obj).authority);
+    }
+
+    @Override
+    public int hashCode() {
+        return authority.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return authority;
+    }
+
+    // ids are per process, a deserialized authority is replaced by the canonical instance of this process
+    private Object readResolve() {
+        return AuthorityRegistry.authority(authority);
+    }
+}
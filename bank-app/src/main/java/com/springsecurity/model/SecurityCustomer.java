@@ -1,27 +1,53 @@
 package com.springsecurity.model;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
+/*
+    Authorities are the rows of the authorities table, the same ones the login token carries. The customer.role
+    column is not used.
+ */
 public class SecurityCustomer implements UserDetails {
 
     private static final long serialVersionUID = -6690946490872875352L;
 
-    private final Customer customer;
+    private final CustomerPrincipal customer;
 
-    public SecurityCustomer(Customer customer) {
+    private final AuthoritySet authorities;
+
+    private final boolean accountNonLocked;
+
+    public SecurityCustomer(CustomerPrincipal customer) {
         this.customer = customer;
+        this.authorities = AuthorityRegistry.setOfNames(customer.getAuthorityNames());
+        this.accountNonLocked = true;
+    }
+
+    private SecurityCustomer(SecurityCustomer unlocked) {
+        this.customer = unlocked.customer;
+        this.authorities = unlocked.authorities;
+        this.accountNonLocked = false;
+    }
+
+    /*
+        Copy reported as locked, used while LoginAttemptTracker holds a lock on this customer.
+     */
+    public SecurityCustomer locked() {
+        return new SecurityCustomer(this);
+    }
+
+    public int getId() {
+        return customer.getId();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority(customer.getRole()));
+        return authorities.asList();
+    }
+
+    public AuthoritySet getAuthoritySet() {
         return authorities;
     }
 
@@ -42,7 +68,7 @@ public class SecurityCustomer implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return accountNonLocked;
     }
 
     @Override
@@ -0,0 +1,75 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/*
+    Reactive counterpart of RateLimitingFilter, sharing its RateLimiter buckets and meters.
+ */
+public class RateLimitingWebFilter implements WebFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final RateLimiter rateLimiter;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Counter rejectedByIp;
+
+    public RateLimitingWebFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.rejectedByIp = meterRegistry.counter("bank.security.rate-limit.rejected", "key", "ip");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!rateLimiter.isEnabled() || request.getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        String path = request.getPath().pathWithinApplication().value();
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientIp = remoteAddress == null ? "unknown" : remoteAddress.getAddress().getHostAddress();
+        long wait = 0;
+        RateLimiter.Rule matched = null;
+        for (RateLimiter.Rule rule : rateLimiter.getRules()) {
+            if (pathMatcher.match(rule.getPattern(), path)) {
+                matched = rule;
+                wait = rateLimiter.tryAcquire(rule, clientIp);
+                break;
+            }
+        }
+        if (matched == null && presentsCredentials(request)) {
+            wait = rateLimiter.tryAcquireForCredentials(clientIp);
+        }
+        if (wait > 0) {
+            rejectedByIp.increment();
+            return reject(exchange.getResponse(), wait);
+        }
+        return chain.filter(exchange);
+    }
+
+    private static boolean presentsCredentials(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(BASIC_PREFIX);
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, long waitNanos) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(waitNanos)));
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,21 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.AccountView;
+import com.springsecurity.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class ReactiveAccountController {
+
+    @Autowired
+    private ReactiveAccountsRepository accountsRepository;
+
+    @PostMapping("/myAccount")
+    public Mono<AccountView> getAccountDetails(@RequestBody Customer customer) {
+        return accountsRepository.findByCustomerId(customer.getId());
+    }
+}
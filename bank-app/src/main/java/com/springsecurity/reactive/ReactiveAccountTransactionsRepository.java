@@ -0,0 +1,65 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.AccountTransactionView;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Date;
+
+/*
+    Reactive counterpart of AccountTransactionsRepository and AccountTransactionsExportRepository,
+    both served by idx_account_transactions_customer_dt.
+ */
+@Repository
+public class ReactiveAccountTransactionsRepository {
+
+    private static final String COLUMNS = "transaction_id, account_number, customer_id, transaction_dt, " +
+            "transaction_summary, transaction_type, transaction_amt, closing_balance, create_dt";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /*
+        Same keyset page as AccountTransactionsRepository.findPageByCustomerId, at most limit rows.
+     */
+    public Flux<AccountTransactionView> findPageByCustomerId(int customerId, Date from, Date beforeDt, String beforeId,
+                                                             int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from account_transactions " +
+                        "where customer_id = :customerId and transaction_dt >= :from " +
+                        "and (transaction_dt < :beforeDt or (transaction_dt = :beforeDt and transaction_id < :beforeId)) " +
+                        "order by transaction_dt desc, transaction_id desc limit :limit")
+                .bind("customerId", customerId)
+                .bind("from", Rows.localDate(from))
+                .bind("beforeDt", Rows.localDate(beforeDt))
+                .bind("beforeId", beforeId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toTransaction(row))
+                .all();
+    }
+
+    /*
+        Whole history, newest first, streamed as the rows arrive.
+     */
+    public Flux<AccountTransactionView> findByCustomerIdOrderByTransactionDtDesc(int customerId) {
+        return databaseClient.sql("select " + COLUMNS + " from account_transactions where customer_id = :customerId " +
+                        "order by transaction_dt desc, transaction_id desc")
+                .bind("customerId", customerId)
+                .map((row, metadata) -> toTransaction(row))
+                .all();
+    }
+
+    private static AccountTransactionView toTransaction(Row row) {
+        return new AccountTransactionView(row.get("transaction_id", String.class),
+                Rows.longValue(row, "account_number"),
+                Rows.intValue(row, "customer_id"),
+                Rows.date(row, "transaction_dt"),
+                row.get("transaction_summary", String.class),
+                row.get("transaction_type", String.class),
+                Rows.intValue(row, "transaction_amt"),
+                Rows.intValue(row, "closing_balance"),
+                row.get("create_dt", String.class));
+    }
+}
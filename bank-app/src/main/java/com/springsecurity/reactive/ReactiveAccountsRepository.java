@@ -0,0 +1,27 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.AccountView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/*
+    Reactive counterpart of AccountsRepository.
+ */
+@Repository
+public class ReactiveAccountsRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<AccountView> findByCustomerId(int customerId) {
+        return databaseClient.sql("select customer_id, account_number, account_type, branch_address, create_dt " +
+                        "from accounts where customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map((row, metadata) -> new AccountView(Rows.intValue(row, "customer_id"),
+                        Rows.longValue(row, "account_number"), row.get("account_type", String.class),
+                        row.get("branch_address", String.class), row.get("create_dt", String.class)))
+                .first();
+    }
+}
@@ -0,0 +1,69 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.controllers.BalanceController;
+import com.springsecurity.controllers.TransactionCursor;
+import com.springsecurity.model.AccountTransactionView;
+import com.springsecurity.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/*
+    Same keyset pagination and cursor format as BalanceController.
+ */
+@RestController
+public class ReactiveBalanceController {
+
+    @Autowired
+    private ReactiveAccountTransactionsRepository accountTransactionsRepository;
+
+    @Value("${bank.balance.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${bank.balance.page-size.max:200}")
+    private int maxPageSize;
+
+    @PostMapping("/myBalance")
+    public Mono<ResponseEntity<List<AccountTransactionView>>> getBalanceDetails(
+            @RequestBody Customer customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        TransactionCursor position = cursor != null
+                ? TransactionCursor.decode(cursor)
+                : new TransactionCursor(to == null ? BalanceController.END_OF_TIME : toDate(to.plusDays(1)), "");
+
+        // fetch one extra row to find out whether there is a next page
+        return accountTransactionsRepository.findPageByCustomerId(customer.getId(),
+                        from == null ? BalanceController.START_OF_TIME : toDate(from), position.getTransactionDt(),
+                        position.getTransactionId(), pageSize + 1)
+                .collectList()
+                .map(transactions -> {
+                    if (transactions.size() <= pageSize) {
+                        return ResponseEntity.ok(transactions);
+                    }
+                    List<AccountTransactionView> page = transactions.subList(0, pageSize);
+                    return ResponseEntity.ok()
+                            .header(BalanceController.NEXT_CURSOR_HEADER,
+                                    TransactionCursor.after(page.get(pageSize - 1)).encode())
+                            .body(page);
+                });
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,79 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.BankAuthenticationToken;
+import com.springsecurity.config.LoginAttemptTracker;
+import com.springsecurity.config.PasswordHashingExecutor;
+import com.springsecurity.config.RateLimiter;
+import com.springsecurity.config.UsernameRateLimitedException;
+import com.springsecurity.config.VerifiedCredentialCache;
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/*
+    Reactive counterpart of BankUsernamePwdAuthenticationProvider with the same lockout, credential cache and
+    per username rate limit.
+    BCrypt runs on the bounded PasswordHashingExecutor pool, never on an event loop thread; the lookup is a
+    non-blocking R2DBC query.
+ */
+@Component
+public class ReactiveBankAuthenticationManager implements ReactiveAuthenticationManager {
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String username = authentication.getName();
+        String pwd = authentication.getCredentials().toString();
+        AuthoritySet cachedAuthorities = verifiedCredentialCache.getAuthorities(username, pwd);
+        if (cachedAuthorities != null) {
+            // already passed BCrypt, neither blocked by nor clearing a lockout, see LoginAttemptTracker
+            return Mono.just(new BankAuthenticationToken(username, pwd, cachedAuthorities));
+        }
+        if (loginAttemptTracker.isLocked(username)) {
+            return Mono.error(new LockedException("Too many failed logins, account temporarily locked!"));
+        }
+        try {
+            // only logins that would run BCrypt or fail use up the username's budget
+            rateLimiter.chargeUsername(username);
+        } catch (UsernameRateLimitedException e) {
+            return Mono.error(e);
+        }
+        return customerRepository.findPrincipalByEmail(username)
+                .switchIfEmpty(Mono.defer(() -> {
+                    loginAttemptTracker.recordFailure(username);
+                    return Mono.error(new BadCredentialsException("No user registered with this details!"));
+                }))
+                .flatMap(customer -> Mono.fromFuture(passwordHashingExecutor.matchesAsync(pwd, customer.getPwd()))
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                loginAttemptTracker.recordFailure(username);
+                                return Mono.error(new BadCredentialsException("Invalid password!"));
+                            }
+                            // canonical authorities shared by every customer with the same roles
+                            AuthoritySet authorities = AuthorityRegistry.setOfNames(customer.getAuthorityNames());
+                            verifiedCredentialCache.put(username, pwd, authorities);
+                            loginAttemptTracker.recordSuccess(username);
+                            return Mono.just(new BankAuthenticationToken(username, pwd, authorities));
+                        }));
+    }
+}
@@ -0,0 +1,21 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.CardView;
+import com.springsecurity.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class ReactiveCardsController {
+
+    @Autowired
+    private ReactiveCardsRepository cardsRepository;
+
+    @PostMapping("/myCards")
+    public Flux<CardView> getCardsDetails(@RequestBody Customer customer) {
+        return cardsRepository.findByCustomerId(customer.getId());
+    }
+}
@@ -0,0 +1,32 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.CardView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/*
+    Reactive counterpart of CardsRepository.
+ */
+@Repository
+public class ReactiveCardsRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<CardView> findByCustomerId(int customerId) {
+        return databaseClient.sql("select card_id, card_number, customer_id, card_type, total_limit, amount_used, " +
+                        "available_amount, create_dt from cards where customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map((row, metadata) -> new CardView(Rows.intValue(row, "card_id"),
+                        Rows.intValue(row, "customer_id"),
+                        row.get("card_number", String.class),
+                        row.get("card_type", String.class),
+                        Rows.intValue(row, "total_limit"),
+                        Rows.intValue(row, "amount_used"),
+                        Rows.intValue(row, "available_amount"),
+                        Rows.date(row, "create_dt")))
+                .all();
+    }
+}
@@ -0,0 +1,31 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.SortableIdGenerator;
+import com.springsecurity.model.Contact;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/*
+    Inserts directly, the write-behind queue of the servlet stack (ContactWriteBehindQueue) is not used here.
+ */
+@RestController
+public class ReactiveContactController {
+
+    @Autowired
+    private ReactiveContactRepository contactRepository;
+
+    @Autowired
+    private SortableIdGenerator idGenerator;
+
+    @PostMapping("/contact")
+    public Mono<Contact> saveContactInquiryDetails(@RequestBody Contact contact) {
+        contact.setContactId(idGenerator.nextContactId());
+        contact.setCreateDt(new Date(System.currentTimeMillis()));
+        return contactRepository.save(contact);
+    }
+}
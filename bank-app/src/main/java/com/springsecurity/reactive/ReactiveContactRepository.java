@@ -0,0 +1,35 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.Contact;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/*
+    Reactive counterpart of ContactRepository, only the insert of a new inquiry is needed.
+ */
+@Repository
+public class ReactiveContactRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Contact> save(Contact contact) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into contact_messages " +
+                "(contact_id, contact_name, contact_email, subject, message, create_dt) " +
+                "values (:contactId, :contactName, :contactEmail, :subject, :message, :createDt)")
+                .bind("contactId", contact.getContactId())
+                .bind("createDt", Rows.localDate(contact.getCreateDt()));
+        insert = bindNullable(insert, "contactName", contact.getContactName());
+        insert = bindNullable(insert, "contactEmail", contact.getContactEmail());
+        insert = bindNullable(insert, "subject", contact.getSubject());
+        insert = bindNullable(insert, "message", contact.getMessage());
+        return insert.fetch().rowsUpdated().thenReturn(contact);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                                  String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+}
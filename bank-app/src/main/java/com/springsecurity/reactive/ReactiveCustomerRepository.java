@@ -0,0 +1,88 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.model.CustomerView;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Reactive counterpart of CustomerRepository and CustomerPrincipalLoader.
+ */
+@Repository
+public class ReactiveCustomerRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<CustomerView> findByEmail(String email) {
+        return databaseClient.sql("select customer_id, name, email, mobile_number, role, create_dt " +
+                        "from customer where email = :email order by customer_id")
+                .bind("email", email)
+                .map((row, metadata) -> toCustomer(row))
+                .all();
+    }
+
+    /*
+        Credentials and authority names in one statement, folded like CustomerPrincipalLoader.loadByEmail.
+     */
+    public Mono<CustomerPrincipal> findPrincipalByEmail(String email) {
+        return databaseClient.sql("select c.customer_id, c.email, c.pwd, a.name from customer c " +
+                        "left outer join authorities a on a.customer_id = c.customer_id " +
+                        "where c.email = :email order by c.customer_id")
+                .bind("email", email)
+                .map((row, metadata) -> new CredentialsRow(Rows.intValue(row, "customer_id"), row.get("email", String.class),
+                        row.get("pwd", String.class), row.get("name", String.class)))
+                .all()
+                .collectList()
+                .flatMap(rows -> rows.isEmpty() ? Mono.empty() : Mono.just(toPrincipal(rows)));
+    }
+
+    private static CustomerPrincipal toPrincipal(List<CredentialsRow> rows) {
+        // rows are ordered by customer id, keep the first customer
+        CredentialsRow first = rows.get(0);
+        List<String> authorityNames = new ArrayList<>(rows.size());
+        for (CredentialsRow row : rows) {
+            if (row.id != first.id) {
+                break;
+            }
+            if (row.authority != null) {
+                authorityNames.add(row.authority);
+            }
+        }
+        return new CustomerPrincipal(first.id, first.email, first.pwd, authorityNames);
+    }
+
+    private static CustomerView toCustomer(Row row) {
+        return new CustomerView(Rows.intValue(row, "customer_id"),
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("mobile_number", String.class),
+                row.get("role", String.class),
+                row.get("create_dt", String.class));
+    }
+
+    private static final class CredentialsRow {
+
+        private final int id;
+
+        private final String email;
+
+        private final String pwd;
+
+        private final String authority;
+
+        private CredentialsRow(int id, String email, String pwd, String authority) {
+            this.id = id;
+            this.email = email;
+            this.pwd = pwd;
+            this.authority = authority;
+        }
+    }
+}
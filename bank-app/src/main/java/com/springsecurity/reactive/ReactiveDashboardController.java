@@ -0,0 +1,104 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.UrlAuthorizationTable;
+import com.springsecurity.controllers.BalanceController;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.Dashboard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/*
+    Reactive DashboardController: the four queries are subscribed to at once instead of running on
+    DashboardQueryExecutor, with the same section rules, per section timeout and unavailableSections reporting.
+ */
+@RestController
+public class ReactiveDashboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDashboardController.class);
+
+    private static final Runnable NOTHING = () -> { };
+
+    @Autowired
+    private ReactiveAccountsRepository accountsRepository;
+
+    @Autowired
+    private ReactiveAccountTransactionsRepository accountTransactionsRepository;
+
+    @Autowired
+    private ReactiveLoanRepository loanRepository;
+
+    @Autowired
+    private ReactiveCardsRepository cardsRepository;
+
+    @Autowired
+    private UrlAuthorizationTable urlAuthorizationTable;
+
+    @Value("${bank.dashboard.section-timeout-ms:1000}")
+    private long sectionTimeoutMillis;
+
+    @Value("${bank.dashboard.transactions:20}")
+    private int transactionCount;
+
+    @PostMapping("/myDashboard")
+    public Mono<Dashboard> getDashboard(@RequestBody Customer customer, Authentication authentication) {
+        int customerId = customer.getId();
+        Dashboard dashboard = new Dashboard();
+
+        // same rules as the individual endpoints
+        Mono<Runnable> account = section(dashboard, "account",
+                urlAuthorizationTable.isAllowed("/myAccount", authentication),
+                accountsRepository.findByCustomerId(customerId), dashboard::setAccount);
+        Mono<Runnable> transactions = section(dashboard, "transactions",
+                urlAuthorizationTable.isAllowed("/myBalance", authentication),
+                accountTransactionsRepository.findPageByCustomerId(customerId, BalanceController.START_OF_TIME,
+                        BalanceController.END_OF_TIME, "",
+                        transactionCount).collectList(), dashboard::setTransactions);
+        Mono<Runnable> loans = section(dashboard, "loans",
+                urlAuthorizationTable.isAllowed("/myLoans", authentication),
+                loanRepository.findByCustomerIdOrderByStartDtDesc(customerId).collectList(), dashboard::setLoans);
+        Mono<Runnable> cards = section(dashboard, "cards",
+                urlAuthorizationTable.isAllowed("/myCards", authentication),
+                cardsRepository.findByCustomerId(customerId).collectList(), dashboard::setCards);
+
+        // results are applied in section order once all are in, so the Dashboard is never modified concurrently
+        return Mono.zip(account, transactions, loans, cards).map(sections -> {
+            sections.getT1().run();
+            sections.getT2().run();
+            sections.getT3().run();
+            sections.getT4().run();
+            return dashboard;
+        });
+    }
+
+    /*
+        Yields the action that stores the result of one section, or records the section as unavailable.
+     */
+    private <T> Mono<Runnable> section(Dashboard dashboard, String name, boolean permitted,
+                                       Mono<T> query, Consumer<T> setter) {
+        if (!permitted) {
+            dashboard.getForbiddenSections().add(name);
+            return Mono.just(NOTHING);
+        }
+        return query
+                .timeout(Duration.ofMillis(sectionTimeoutMillis))
+                .<Runnable>map(result -> () -> setter.accept(result))
+                .defaultIfEmpty(NOTHING)
+                .onErrorResume(e -> {
+                    if (!(e instanceof TimeoutException)) {
+                        log.warn("Dashboard section {} failed", name, e);
+                    }
+                    return Mono.just(() -> dashboard.getUnavailableSections().add(name));
+                });
+    }
+}
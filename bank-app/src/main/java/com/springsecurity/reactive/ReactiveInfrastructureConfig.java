@@ -0,0 +1,33 @@
+package com.springsecurity.reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveInfrastructureConfig {
+
+    /*
+        Tomcat is on the classpath for the servlet stack and would otherwise be picked for the reactive one too,
+        Netty gives the event loop model this profile is about.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /*
+        Spring Boot skips the JDBC DataSource once an R2DBC ConnectionFactory exists, but Flyway, the load test data
+        generator and the components shared with the servlet stack still need one. The endpoints only use R2DBC.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
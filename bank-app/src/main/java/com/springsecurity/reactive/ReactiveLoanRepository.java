@@ -0,0 +1,32 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.LoanView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/*
+    Reactive counterpart of LoanRepository.
+ */
+@Repository
+public class ReactiveLoanRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<LoanView> findByCustomerIdOrderByStartDtDesc(int customerId) {
+        return databaseClient.sql("select loan_number, customer_id, start_dt, loan_type, total_loan, amount_paid, " +
+                        "outstanding_amount, create_dt from loans where customer_id = :customerId order by start_dt desc")
+                .bind("customerId", customerId)
+                .map((row, metadata) -> new LoanView(Rows.intValue(row, "loan_number"),
+                        Rows.intValue(row, "customer_id"),
+                        Rows.date(row, "start_dt"),
+                        row.get("loan_type", String.class),
+                        Rows.intValue(row, "total_loan"),
+                        Rows.intValue(row, "amount_paid"),
+                        Rows.intValue(row, "outstanding_amount"),
+                        row.get("create_dt", String.class)))
+                .all();
+    }
+}
@@ -0,0 +1,21 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.LoanView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class ReactiveLoansController {
+
+    @Autowired
+    private ReactiveLoanRepository loanRepository;
+
+    @PostMapping("/myLoans")
+    public Flux<LoanView> getLoansDetails(@RequestBody Customer customer) {
+        return loanRepository.findByCustomerIdOrderByStartDtDesc(customer.getId());
+    }
+}
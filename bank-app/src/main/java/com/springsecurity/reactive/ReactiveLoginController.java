@@ -0,0 +1,36 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.BankTokenService;
+import com.springsecurity.model.CustomerView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+@RestController
+public class ReactiveLoginController {
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    @Autowired
+    private BankTokenService bankTokenService;
+
+    @RequestMapping("/user")
+    public Mono<CustomerView> getUserDetailsAfterLogin(Principal user, ServerHttpResponse response) {
+        return customerRepository.findByEmail(user.getName())
+                .next()
+                .doOnNext(customer -> {
+                    if (user instanceof Authentication && bankTokenService.canIssueFor((Authentication) user)) {
+                        String token = bankTokenService.issue(customer.getId(), customer.getEmail(),
+                                ((Authentication) user).getAuthorities());
+                        response.getHeaders().set(HttpHeaders.AUTHORIZATION, BankTokenService.BEARER_PREFIX + token);
+                    }
+                });
+    }
+}
@@ -0,0 +1,37 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.model.Notice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/*
+    Reactive counterpart of NoticeRepository.
+ */
+@Repository
+public class ReactiveNoticeRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Notice> findAllActiveNotices(LocalDate today) {
+        return databaseClient.sql("select notice_id, notice_summary, notice_details, notic_beg_dt, notic_end_dt, " +
+                        "create_dt, update_dt from notice_details where :today between notic_beg_dt and notic_end_dt")
+                .bind("today", today)
+                .map((row, metadata) -> {
+                    Notice notice = new Notice();
+                    notice.setNoticeId(Rows.intValue(row, "notice_id"));
+                    notice.setNoticeSummary(row.get("notice_summary", String.class));
+                    notice.setNoticeDetails(row.get("notice_details", String.class));
+                    notice.setNoticBegDt(Rows.date(row, "notic_beg_dt"));
+                    notice.setNoticEndDt(Rows.date(row, "notic_end_dt"));
+                    notice.setCreateDt(Rows.date(row, "create_dt"));
+                    notice.setUpdateDt(Rows.date(row, "update_dt"));
+                    return notice;
+                })
+                .all();
+    }
+}
@@ -0,0 +1,66 @@
+package com.springsecurity.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.controllers.ActiveNoticesCache;
+import com.springsecurity.model.Notice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+    Serves the active notices from a body and ETag rebuilt at most every bank.notices.cache.max-age-seconds.
+    WebFlux answers a matching If-None-Match with 304 on its own.
+ */
+@RestController
+public class ReactiveNoticesController {
+
+    @Autowired
+    private ReactiveNoticeRepository noticeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bank.notices.cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private Mono<ResponseEntity<byte[]>> notices;
+
+    @PostConstruct
+    public void init() {
+        Duration maxAge = Duration.ofSeconds(maxAgeSeconds);
+        // a failed query is retried by the next request instead of being cached; today is taken on every
+        // rebuild from the JVM clock, like ActiveNoticesCache, instead of the database's current_date
+        notices = Mono.defer(() -> noticeRepository.findAllActiveNotices(LocalDate.now()).collectList())
+                .map(this::toResponse)
+                .cache(response -> maxAge, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @GetMapping("/notices")
+    public Mono<ResponseEntity<byte[]>> getNotices() {
+        return notices;
+    }
+
+    private ResponseEntity<byte[]> toResponse(List<Notice> activeNotices) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(activeNotices);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(ActiveNoticesCache.strongEtag(body))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize active notices", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.springsecurity.reactive;
+
+import com.springsecurity.config.BankTokenService;
+import com.springsecurity.config.CorsPolicy;
+import com.springsecurity.config.PasswordHashingRejectedException;
+import com.springsecurity.config.RateLimiter;
+import com.springsecurity.config.UrlAuthorizationTable;
+import com.springsecurity.config.UsernameRateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpBasicServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+import org.springframework.web.cors.CorsConfiguration;
+import reactor.core.publisher.Mono;
+
+/*
+    Reactive equivalent of ProjectSecurityConfig: the same CorsPolicy, rate limits, URL rules (UrlAuthorizationTable),
+    HTTP Basic with 503 on a saturated hashing pool, and bearer tokens when bank.security.token.enabled=true.
+    Form login is not offered, the reactive profile is meant for API clients.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private UrlAuthorizationTable urlAuthorizationTable;
+
+    @Autowired
+    private CorsPolicy corsPolicy;
+
+    @Autowired
+    private BankTokenService bankTokenService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReactiveBankAuthenticationManager authenticationManager;
+
+    @Bean
+    public SecurityWebFilterChain bankSecurityWebFilterChain(ServerHttpSecurity http) {
+        // built once, CorsWebFilter answers preflights before any other security filter
+        CorsConfiguration corsConfiguration = corsPolicy.toCorsConfiguration();
+        http.cors().configurationSource(exchange -> corsConfiguration);
+
+        // throttle per client IP before any authentication work happens, logins reaching BCrypt are also limited per username
+        http.addFilterAfter(new RateLimitingWebFilter(rateLimiter, meterRegistry), SecurityWebFiltersOrder.CORS);
+
+        http.csrf().disable();
+        // every request carries its credentials, nothing to replay after a login
+        http.requestCache().requestCache(NoOpServerRequestCache.getInstance());
+
+        http.authorizeExchange().anyExchange().access(this::authorize);
+
+        ServerAuthenticationEntryPoint entryPoint = overloadAwareEntryPoint();
+        http.httpBasic().authenticationManager(authenticationManager).authenticationEntryPoint(entryPoint);
+        http.exceptionHandling().authenticationEntryPoint(entryPoint);
+
+        if (bankTokenService.isEnabled()) {
+            http.addFilterBefore(bearerTokenFilter(), SecurityWebFiltersOrder.HTTP_BASIC);
+        }
+        return http.build();
+    }
+
+    private Mono<AuthorizationDecision> authorize(Mono<Authentication> authentication, AuthorizationContext context) {
+        String path = context.getExchange().getRequest().getPath().pathWithinApplication().value();
+        return authentication
+                .map(presented -> urlAuthorizationTable.isAllowed(path, presented))
+                .switchIfEmpty(Mono.fromSupplier(() -> urlAuthorizationTable.isAllowed(path, null)))
+                .map(AuthorizationDecision::new);
+    }
+
+    /*
+        Answers 503 with Retry-After when the hashing pool was saturated and 429 when the username ran out of
+        password verifications, like OverloadAwareAuthenticationHandler.
+     */
+    private static ServerAuthenticationEntryPoint overloadAwareEntryPoint() {
+        HttpBasicServerAuthenticationEntryPoint basicEntryPoint = new HttpBasicServerAuthenticationEntryPoint();
+        basicEntryPoint.setRealm("Realm");
+        return (exchange, exception) -> {
+            if (exception instanceof PasswordHashingRejectedException) {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                return Mono.empty();
+            }
+            if (exception instanceof UsernameRateLimitedException) {
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                        Long.toString(((UsernameRateLimitedException) exception).getRetryAfterSeconds()));
+                return Mono.empty();
+            }
+            return basicEntryPoint.commence(exchange, exception);
+        };
+    }
+
+    /*
+        Same as TokenAuthenticationFilter: the token is verified on its own, without the database or BCrypt.
+     */
+    private AuthenticationWebFilter bearerTokenFilter() {
+        // the converter already returns a verified authentication
+        AuthenticationWebFilter filter = new AuthenticationWebFilter((ReactiveAuthenticationManager) Mono::just);
+        filter.setServerAuthenticationConverter(exchange -> {
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith(BankTokenService.BEARER_PREFIX)) {
+                return Mono.empty();
+            }
+            return Mono.fromCallable(() -> bankTokenService.verify(header.substring(BankTokenService.BEARER_PREFIX.length())));
+        });
+        filter.setAuthenticationFailureHandler((webFilterExchange, exception) -> {
+            webFilterExchange.getExchange().getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            webFilterExchange.getExchange().getResponse().getHeaders()
+                    .set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            return Mono.empty();
+        });
+        return filter;
+    }
+}
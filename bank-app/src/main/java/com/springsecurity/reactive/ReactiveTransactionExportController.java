@@ -0,0 +1,129 @@
+package com.springsecurity.reactive;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.model.AccountTransactionView;
+import com.springsecurity.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.function.Function;
+
+import static com.springsecurity.repositories.AccountTransactionsExportRepository.COLUMNS;
+
+/*
+    Reactive TransactionExportController: the same NDJSON and CSV rows, written as they arrive from R2DBC
+    and flushed every bank.export.flush-every rows. A foreign customer id is answered with 403.
+ */
+@RestController
+public class ReactiveTransactionExportController {
+
+    @Autowired
+    private ReactiveAccountTransactionsRepository accountTransactionsRepository;
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bank.export.flush-every:1000}")
+    private int flushEvery;
+
+    @PostMapping("/myTransactions/export")
+    public Mono<Void> exportTransactions(@RequestBody Customer customer,
+                                         @RequestParam(defaultValue = "ndjson") String format,
+                                         Authentication authentication,
+                                         ServerHttpResponse response) {
+        return customerRepository.findPrincipalByEmail(authentication.getName())
+                .filter(principal -> principal.getId() == customer.getId())
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
+                        "Transactions of another customer")))
+                .flatMap(principal -> export(customer, format, response));
+    }
+
+    private Mono<Void> export(Customer customer, String format, ServerHttpResponse response) {
+        Flux<String> lines;
+        if ("csv".equalsIgnoreCase(format)) {
+            response.getHeaders().setContentType(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+            response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"");
+            lines = Flux.concat(Mono.just(String.join(",", COLUMNS) + "\r\n"), rows(customer, this::csvRow));
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.getHeaders().setContentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"));
+            lines = rows(customer, this::jsonRow);
+        } else {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format));
+        }
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return response.writeAndFlushWith(lines
+                .map(line -> (DataBuffer) bufferFactory.wrap(line.getBytes(StandardCharsets.UTF_8)))
+                .window(flushEvery));
+    }
+
+    private Flux<String> rows(Customer customer, Function<AccountTransactionView, String> format) {
+        return accountTransactionsRepository.findByCustomerIdOrderByTransactionDtDesc(customer.getId()).map(format);
+    }
+
+    private String jsonRow(AccountTransactionView transaction) {
+        StringWriter line = new StringWriter(256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(line)) {
+            json.writeStartObject();
+            json.writeStringField("transactionId", transaction.getTransactionId());
+            json.writeNumberField("accountNumber", transaction.getAccountNumber());
+            json.writeNumberField("customerId", transaction.getCustomerId());
+            json.writeStringField("transactionDt", isoDate(transaction.getTransactionDt()));
+            json.writeStringField("transactionSummary", transaction.getTransactionSummary());
+            json.writeStringField("transactionType", transaction.getTransactionType());
+            json.writeNumberField("transactionAmt", transaction.getTransactionAmt());
+            json.writeNumberField("closingBalance", transaction.getClosingBalance());
+            json.writeStringField("createDt", transaction.getCreateDt());
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line.append('\n').toString();
+    }
+
+    private String csvRow(AccountTransactionView transaction) {
+        return csvField(transaction.getTransactionId()) + ',' + transaction.getAccountNumber() + ','
+                + transaction.getCustomerId() + ',' + csvField(isoDate(transaction.getTransactionDt())) + ','
+                + csvField(transaction.getTransactionSummary()) + ',' + csvField(transaction.getTransactionType()) + ','
+                + transaction.getTransactionAmt() + ',' + transaction.getClosingBalance() + ','
+                + csvField(transaction.getCreateDt()) + "\r\n";
+    }
+
+    // Rows.date maps the DATE column to local midnight, so the day is read back in the same zone
+    private static String isoDate(Date date) {
+        return date == null ? null : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,36 @@
+package com.springsecurity.reactive;
+
+import io.r2dbc.spi.Row;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/*
+    Conversions between R2DBC rows and the java.util.Date / primitive properties of the JPA entities,
+    so the reactive endpoints render the same JSON as the servlet ones.
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    static Date date(Row row, String column) {
+        LocalDate value = row.get(column, LocalDate.class);
+        return value == null ? null : Date.from(value.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    static LocalDate localDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    static int intValue(Row row, String column) {
+        Integer value = row.get(column, Integer.class);
+        return value == null ? 0 : value;
+    }
+
+    static long longValue(Row row, String column) {
+        Long value = row.get(column, Long.class);
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,43 @@
+package com.springsecurity.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/*
+    Streams a customer's transactions through a forward-only, read-only JDBC cursor so exports never
+    materialize AccountTransactions entities or a result list.
+
+    On MySQL the fetch size is only honoured with useCursorFetch=true on the JDBC url, otherwise the
+    driver buffers the whole result set.
+ */
+@Repository
+public class AccountTransactionsExportRepository {
+
+    public static final String[] COLUMNS = {"transaction_id", "account_number", "customer_id", "transaction_dt",
+            "transaction_summary", "transaction_type", "transaction_amt", "closing_balance", "create_dt"};
+
+    static final String SELECT_BY_CUSTOMER = "select " + String.join(", ", COLUMNS) +
+            " from account_transactions where customer_id = ? order by transaction_dt desc, transaction_id desc";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bank.export.fetch-size:500}")
+    private int fetchSize;
+
+    public void forEachByCustomerId(int customerId, RowCallbackHandler rowHandler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_CUSTOMER,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setInt(1, customerId);
+            return statement;
+        }, rowHandler);
+    }
+}
@@ -1,13 +1,39 @@
 package com.springsecurity.repositories;
 
+import com.springsecurity.model.AccountTransactionView;
 import com.springsecurity.model.AccountTransactions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Date;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface AccountTransactionsRepository extends CrudRepository<AccountTransactions, Long> {
 
     List<AccountTransactions> findByCustomerIdOrderByTransactionDtDesc(int customerId);
+
+    /*
+        Keyset page in (transactionDt, transactionId) descending order: returns transactions on or after
+        'from' that sort strictly after the (beforeDt, beforeId) position. Use beforeId = "" to start
+        right below beforeDt. Served by idx_account_transactions_customer_dt.
+     */
+    @Query("select new com.springsecurity.model.AccountTransactionView(t.transactionId, t.accountNumber, " +
+            "t.customerId, t.transactionDt, t.transactionSummary, t.transactionType, t.transactionAmt, " +
+            "t.closingBalance, t.createDt) from AccountTransactions t where t.customerId = :customerId and t.transactionDt >= :from " +
+            "and (t.transactionDt < :beforeDt or (t.transactionDt = :beforeDt and t.transactionId < :beforeId)) " +
+            "order by t.transactionDt desc, t.transactionId desc")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<AccountTransactionView> findPageByCustomerId(@Param("customerId") int customerId,
+                                                      @Param("from") Date from,
+                                                      @Param("beforeDt") Date beforeDt,
+                                                      @Param("beforeId") String beforeId,
+                                                      Pageable pageable);
 }
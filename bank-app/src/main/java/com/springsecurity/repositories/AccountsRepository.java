@@ -1,11 +1,21 @@
 package com.springsecurity.repositories;
 
+import com.springsecurity.model.AccountView;
 import com.springsecurity.model.Accounts;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface AccountsRepository extends CrudRepository<Accounts, Long> {
 
-        Accounts findByCustomerId(int customerId);
+        @Query("select new com.springsecurity.model.AccountView(a.customerId, a.accountNumber, a.accountType, " +
+                "a.branchAddress, a.createDt) from Accounts a where a.customerId = ?1")
+        @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+        AccountView findByCustomerId(int customerId);
 }
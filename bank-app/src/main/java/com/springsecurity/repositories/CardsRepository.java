@@ -1,13 +1,22 @@
 package com.springsecurity.repositories;
 
+import com.springsecurity.model.CardView;
 import com.springsecurity.model.Cards;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface CardsRepository extends CrudRepository<Cards, Long> {
 
-    List<Cards> findByCustomerId(int customerId);
+    @Query("select new com.springsecurity.model.CardView(c.cardId, c.customerId, c.cardNumber, c.cardType, " +
+            "c.totalLimit, c.amountUsed, c.availableAmount, c.createDt) from Cards c where c.customerId = ?1")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<CardView> findByCustomerId(int customerId);
 }
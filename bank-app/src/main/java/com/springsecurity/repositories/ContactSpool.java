@@ -0,0 +1,114 @@
+package com.springsecurity.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.model.Contact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/*
+    Append-only file of acknowledged contact submissions that could not be written to the database, one JSON
+    object per line. Appends are forced to disk before they return. replay hands every spooled submission to
+    a writer and keeps only the ones it could not write, so a submission stays in the file until it is in the
+    database.
+ */
+public class ContactSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactSpool.class);
+
+    private final Path file;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ContactSpool(Path file) {
+        this.file = file;
+    }
+
+    public synchronized void append(List<Contact> contacts) {
+        StringBuilder lines = new StringBuilder();
+        for (Contact contact : contacts) {
+            try {
+                lines.append(objectMapper.writeValueAsString(contact)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize contact submission " + contact.getContactId(), e);
+            }
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spool contact submissions to " + file, e);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        try {
+            return !Files.exists(file) || Files.size(file) == 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+        Offers every spooled submission to writer, which returns whether it was written, and rewrites the file
+        with the rest. Returns the number of submissions written.
+     */
+    public synchronized int replay(Predicate<Contact> writer) {
+        if (isEmpty()) {
+            return 0;
+        }
+        List<String> remaining = new ArrayList<>();
+        int written = 0;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Contact contact;
+                try {
+                    contact = objectMapper.readValue(line, Contact.class);
+                } catch (JsonProcessingException e) {
+                    // e.g. a line cut short by a crash during append, keep it for inspection
+                    log.error("Unreadable line in contact spool {}", file, e);
+                    remaining.add(line);
+                    continue;
+                }
+                if (writer.test(contact)) {
+                    written++;
+                } else {
+                    remaining.add(line);
+                }
+            }
+            if (remaining.isEmpty()) {
+                Files.delete(file);
+            } else {
+                Path rewritten = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(rewritten, remaining, StandardCharsets.UTF_8);
+                Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to replay contact spool " + file, e);
+        }
+        return written;
+    }
+}
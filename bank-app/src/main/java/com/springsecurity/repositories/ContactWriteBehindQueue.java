@@ -0,0 +1,253 @@
+package com.springsecurity.repositories;
+
+import com.springsecurity.model.Contact;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+    Optional write-behind path for /contact (bank.contact.write-behind.enabled=true).
+
+    Submissions are acknowledged once they are in a bounded in-memory queue. A single writer thread flushes
+    them with JDBC batch inserts when batch-size rows are waiting or flush-interval-ms has passed.
+    When the queue is full the submission is saved synchronously instead, and a batch that fails is retried
+    row by row through ContactRepository. Rows that fail again are appended to the ContactSpool file
+    (spool-file) and replayed at startup and every replay-interval-ms until they are written.
+    The queue is drained before the application context shuts down.
+ */
+@Repository
+public class ContactWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactWriteBehindQueue.class);
+
+    private static final String INSERT_CONTACT = "insert into contact_messages " +
+            "(contact_id, contact_name, contact_email, subject, message, create_dt) values (?, ?, ?, ?, ?, ?)";
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final long replayIntervalMillis;
+
+    private final BlockingQueue<Contact> queue;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ContactRepository contactRepository;
+
+    private final ContactSpool spool;
+
+    private final Timer flushTimer;
+
+    private final Counter synchronousFallbacks;
+
+    private final Counter failedBatches;
+
+    private final Counter spooledContacts;
+
+    // submit holds the read lock from the running check to the offer, so nothing is queued after stop
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running = true;
+
+    private Thread writer;
+
+    @Autowired
+    public ContactWriteBehindQueue(JdbcTemplate jdbcTemplate, ContactRepository contactRepository, MeterRegistry meterRegistry,
+                                   @Value("${bank.contact.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${bank.contact.write-behind.capacity:10000}") int capacity,
+                                   @Value("${bank.contact.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${bank.contact.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                                   @Value("${bank.contact.write-behind.spool-file:contact-spool/contacts.jsonl}") String spoolFile,
+                                   @Value("${bank.contact.write-behind.replay-interval-ms:30000}") long replayIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contactRepository = contactRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.replayIntervalMillis = replayIntervalMillis;
+        this.spool = new ContactSpool(Paths.get(spoolFile));
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("bank.contact.write-behind.queue.depth", queue, BlockingQueue::size)
+                .description("Contact submissions acknowledged but not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("bank.contact.write-behind.flush")
+                .description("Time taken to write one batch of contact submissions")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.synchronousFallbacks = Counter.builder("bank.contact.write-behind.sync.fallback")
+                .description("Submissions saved synchronously because the queue was full")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("bank.contact.write-behind.batch.failed")
+                .description("Batches that failed and were retried row by row")
+                .register(meterRegistry);
+        this.spooledContacts = Counter.builder("bank.contact.write-behind.spooled")
+                .description("Submissions that failed the row by row retry and were written to the spool file")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Contact submit(Contact contact) {
+        boolean queued;
+        runningLock.readLock().lock();
+        try {
+            queued = running && queue.offer(contact);
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        if (!queued) {
+            synchronousFallbacks.increment();
+            return contactRepository.save(contact);
+        }
+        return contact;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer = new Thread(this::writeLoop, "contact-write-behind");
+            writer.start();
+        } else {
+            // left over from a run with write-behind enabled
+            replaySpool();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        if (writer != null) {
+            writer.join();
+        }
+    }
+
+    private void writeLoop() {
+        List<Contact> batch = new ArrayList<>(batchSize);
+        replaySpool();
+        long nextReplay = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+        while (running || !queue.isEmpty()) {
+            if (System.nanoTime() - nextReplay >= 0) {
+                replaySpool();
+                nextReplay = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+            }
+            try {
+                Contact first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    Contact next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // keep draining, shutdown is driven by the running flag
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Contact> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_CONTACT, batch, batch.size(), (statement, contact) -> {
+                statement.setString(1, contact.getContactId());
+                statement.setString(2, contact.getContactName());
+                statement.setString(3, contact.getContactEmail());
+                statement.setString(4, contact.getSubject());
+                statement.setString(5, contact.getMessage());
+                statement.setTimestamp(6, contact.getCreateDt() == null ? null : new Timestamp(contact.getCreateDt().getTime()));
+            }));
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Batch insert of {} contact submissions failed, retrying one by one", batch.size(), e);
+            List<Contact> failed = new ArrayList<>();
+            for (Contact contact : batch) {
+                try {
+                    contactRepository.save(contact);
+                } catch (RuntimeException rowFailure) {
+                    log.error("Unable to save contact submission {}, spooling it", contact.getContactId(), rowFailure);
+                    failed.add(contact);
+                }
+            }
+            if (!failed.isEmpty()) {
+                spool(failed);
+            }
+        }
+    }
+
+    private void spool(List<Contact> failed) {
+        try {
+            spool.append(failed);
+            spooledContacts.increment(failed.size());
+        } catch (RuntimeException e) {
+            List<String> ids = new ArrayList<>(failed.size());
+            failed.forEach(contact -> ids.add(contact.getContactId()));
+            log.error("Unable to spool contact submissions {}, they are lost", ids, e);
+        }
+    }
+
+    /*
+        Writes the spooled submissions, stopping at the first failure since the database is probably still down.
+        save is idempotent for a submission that made it into the database before being spooled.
+     */
+    private void replaySpool() {
+        boolean[] failing = {false};
+        try {
+            int written = spool.replay(contact -> {
+                if (failing[0]) {
+                    return false;
+                }
+                try {
+                    contactRepository.save(contact);
+                    return true;
+                } catch (RuntimeException e) {
+                    log.warn("Unable to replay spooled contact submission {}", contact.getContactId(), e);
+                    failing[0] = true;
+                    return false;
+                }
+            });
+            if (written > 0) {
+                log.info("Replayed {} spooled contact submissions", written);
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to replay the contact spool", e);
+        }
+    }
+}
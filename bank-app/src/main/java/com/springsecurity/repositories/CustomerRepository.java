@@ -1,13 +1,42 @@
 package com.springsecurity.repositories;
 
 import com.springsecurity.model.Customer;
+import com.springsecurity.model.CustomerView;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface CustomerRepository extends CrudRepository<Customer, Long> {
 
-    List<Customer> findByEmail(String email);
+    @Query("select new com.springsecurity.model.CustomerView(c.id, c.name, c.email, c.mobileNumber, c.role, c.createDt) " +
+            "from Customer c where c.email = ?1 order by c.id")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<CustomerView> findByEmail(String email);
+
+    /*
+        One row per authority (or a single row with a null authority), fetched with one
+        statement and without hydrating Customer or Authority entities.
+     */
+    @Query("select c.id as id, c.email as email, c.pwd as pwd, a.name as authority " +
+            "from Customer c left join c.authorities a where c.email = ?1 order by c.id")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<CredentialsRow> findCredentialsByEmail(String email);
+
+    interface CredentialsRow {
+
+        int getId();
+
+        String getEmail();
+
+        String getPwd();
+
+        String getAuthority();
+    }
 }
@@ -1,13 +1,23 @@
 package com.springsecurity.repositories;
 
+import com.springsecurity.model.LoanView;
 import com.springsecurity.model.Loans;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface LoanRepository extends CrudRepository<Loans, Long> {
 
-    List<Loans> findByCustomerIdOrderByStartDtDesc(int customerId);
+    @Query("select new com.springsecurity.model.LoanView(l.loanNumber, l.customerId, l.startDt, l.loanType, " +
+            "l.totalLoan, l.amountPaid, l.outstandingAmount, l.createDt) from Loans l where l.customerId = ?1 " +
+            "order by l.startDt desc")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<LoanView> findByCustomerIdOrderByStartDtDesc(int customerId);
 }
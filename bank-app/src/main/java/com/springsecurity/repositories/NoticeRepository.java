@@ -3,13 +3,19 @@ package com.springsecurity.repositories;
 import com.springsecurity.model.Notice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface NoticeRepository extends CrudRepository<Notice, Long> {
 
-    @Query(value = "from Notice n where CURDATE() BETWEEN noticBegDt AND noticEndDt")
-    List<Notice> findAllActiveNotices();
+    // only run when ActiveNoticesCache rebuilds its snapshot, read-only so that it goes to a replica;
+    // today comes from the caller's clock so it matches the day the snapshot is kept for
+    @Query(value = "from Notice n where :today BETWEEN noticBegDt AND noticEndDt")
+    @Transactional(readOnly = true)
+    List<Notice> findAllActiveNotices(@Param("today") Date today);
 }
@@ -0,0 +1,141 @@
+package com.springsecurity.repositories;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Records the SQL and the bound parameters of every statement the current thread prepares while inside
+    capture(...), so QueryPlanChecker explains exactly what Hibernate issues for a repository method.
+
+    The DataSource bean is wrapped while bank.db.explain-check.enabled is set, but outside capture(...) it
+    hands out the pool's own connections; only the connections of a capturing thread are proxies.
+ */
+@Component
+public class QueryCapture implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+    private final boolean enabled;
+
+    // read from the Environment, post processors are created before ${...} placeholders can be resolved everywhere
+    public QueryCapture(Environment environment) {
+        this.enabled = environment.getProperty("bank.db.explain-check.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource) {
+            return new CapturingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+    /*
+        Runs the action and returns the statements it prepared on this thread, in order.
+     */
+    static List<CapturedQuery> capture(Runnable action) {
+        List<CapturedQuery> queries = new ArrayList<>();
+        CAPTURED.set(queries);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return queries;
+    }
+
+    static final class CapturedQuery {
+
+        private final String sql;
+
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        CapturedQuery(String sql) {
+            this.sql = sql;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        Object[] getArguments() {
+            return parameters.values().toArray();
+        }
+    }
+
+    private static final class CapturingDataSource extends DelegatingDataSource {
+
+        private CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return capturing(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return capturing(super.getConnection(username, password));
+        }
+
+        private static Connection capturing(Connection connection) {
+            List<CapturedQuery> queries = CAPTURED.get();
+            if (queries == null) {
+                return connection;
+            }
+            return proxy(Connection.class, (method, args) -> {
+                Object result = invoke(method, connection, args);
+                if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                    CapturedQuery query = new CapturedQuery((String) args[0]);
+                    queries.add(query);
+                    return recording((PreparedStatement) result, query);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, CapturedQuery query) {
+            return proxy(PreparedStatement.class, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && method.getParameterTypes()[0] == int.class) {
+                    // setNull(index, sqlType) binds null, every other setter binds its second argument
+                    query.parameters.put((Integer) args[0], method.getName().equals("setNull") ? null : args[1]);
+                }
+                return invoke(method, statement, args);
+            });
+        }
+    }
+
+    private interface Invocation {
+
+        Object proceed(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        return type.cast(Proxy.newProxyInstance(QueryCapture.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> invocation.proceed(method, args)));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
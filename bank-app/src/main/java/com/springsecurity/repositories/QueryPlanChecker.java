@@ -0,0 +1,178 @@
+package com.springsecurity.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    Runs EXPLAIN for the SQL behind the repository query methods once the application is ready and logs a
+    warning for every query the database would answer with a full table scan, e.g. because an index from
+    db/migration/common/V2__repository_indexes.sql is missing. The SQL is the one Hibernate issues, taken from
+    a sample call of every query method, so it follows changes to the repositories.
+
+    MySQL plans are scanned for access type ALL, H2 plans for tableScan. Other databases are skipped.
+    Disable with bank.db.explain-check.enabled=false.
+ */
+@Component
+public class QueryPlanChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanChecker.class);
+
+    // served from ActiveNoticesCache, the whole notice_details table is read once per refresh
+    static final Set<String> NOT_CHECKED = Collections.singleton("NoticeRepository.findAllActiveNotices");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.db.explain-check.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            check();
+        } catch (RuntimeException e) {
+            log.warn("Could not check the query plans: {}", e.getMessage());
+        }
+    }
+
+    /*
+        Returns the names of the queries whose plan contains a full table scan.
+     */
+    public List<String> check() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT));
+        List<String> scanning = new ArrayList<>();
+        if (!database.contains("mysql") && !database.contains("h2")) {
+            log.info("Skipping the query plan check, EXPLAIN output of {} is not understood", database);
+            return scanning;
+        }
+        explainAll().forEach((name, plan) -> {
+            if (database.contains("mysql") ? scansInMySql(plan) : scansInH2(plan)) {
+                log.warn("{} does a full table scan, check the indexes in db/migration. Plan: {}", name, plan);
+                scanning.add(name);
+            }
+        });
+        return scanning;
+    }
+
+    /*
+        The plan rows of every repository query method, by method name. Each method runs once with sample
+        arguments in its own read-only transaction that is rolled back, and every statement it prepared is
+        explained with the parameters Hibernate bound, see QueryCapture.
+     */
+    Map<String, List<Map<String, Object>>> explainAll() {
+        Map<String, List<Map<String, Object>>> plans = new LinkedHashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow(IllegalStateException::new);
+            for (Method method : information.getQueryMethods()) {
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (!NOT_CHECKED.contains(name)) {
+                    Object[] arguments = sampleArguments(method);
+                    List<QueryCapture.CapturedQuery> queries = QueryCapture.capture(() ->
+                            transaction.executeWithoutResult(status -> {
+                                ReflectionUtils.invokeMethod(method, repository, arguments);
+                                status.setRollbackOnly();
+                            }));
+                    plans.put(name, explain(queries));
+                }
+            }
+        }
+        // plain JDBC, not a Spring Data query method
+        plans.put("AccountTransactionsExportRepository.forEachByCustomerId",
+                jdbcTemplate.queryForList("explain " + AccountTransactionsExportRepository.SELECT_BY_CUSTOMER, 0));
+        return plans;
+    }
+
+    private List<Map<String, Object>> explain(List<QueryCapture.CapturedQuery> queries) {
+        if (queries.isEmpty()) {
+            throw new IllegalStateException("No statement captured, is bank.db.explain-check.enabled set?");
+        }
+        List<Map<String, Object>> plan = new ArrayList<>();
+        for (QueryCapture.CapturedQuery query : queries) {
+            plan.addAll(jdbcTemplate.queryForList("explain " + query.getSql(), query.getArguments()));
+        }
+        return plan;
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class || types[i] == Integer.class) {
+                arguments[i] = 0;
+            } else if (types[i] == long.class || types[i] == Long.class) {
+                arguments[i] = 0L;
+            } else if (types[i] == String.class) {
+                arguments[i] = "explain@example.com";
+            } else if (types[i] == Date.class) {
+                arguments[i] = new Date(0);
+            } else if (types[i] == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 50);
+            } else {
+                throw new IllegalStateException("No sample argument for " + types[i].getSimpleName() + " of " + method);
+            }
+        }
+        return arguments;
+    }
+
+    private static boolean scansInMySql(List<Map<String, Object>> plan) {
+        for (Map<String, Object> row : plan) {
+            Object type = row.getOrDefault("type", row.get("TYPE"));
+            if ("ALL".equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean scansInH2(List<Map<String, Object>> plan) {
+        for (Map<String, Object> row : plan) {
+            for (Object value : row.values()) {
+                if (value != null && value.toString().contains("tableScan")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
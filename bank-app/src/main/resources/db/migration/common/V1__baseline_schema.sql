@@ -0,0 +1,89 @@
+-- Tables of every entity in com.springsecurity.model.
+-- Column names follow Spring Boot's physical naming strategy (camelCase -> snake_case).
+-- Existing databases are baselined at version 1.1 (spring.flyway.baseline-on-migrate) and start with V2.
+
+create table customer (
+  customer_id int not null,
+  name varchar(100),
+  email varchar(100) not null,
+  mobile_number varchar(20),
+  pwd varchar(500) not null,
+  role varchar(100),
+  create_dt varchar(20),
+  primary key (customer_id)
+);
+
+create table authorities (
+  id bigint not null,
+  customer_id int not null,
+  name varchar(50) not null,
+  primary key (id),
+  constraint fk_authorities_customer foreign key (customer_id) references customer (customer_id)
+);
+
+create table accounts (
+  customer_id int not null,
+  account_number bigint not null,
+  account_type varchar(100),
+  branch_address varchar(200),
+  create_dt varchar(20),
+  primary key (account_number)
+);
+
+create table account_transactions (
+  transaction_id varchar(200) not null,
+  account_number bigint not null,
+  customer_id int not null,
+  transaction_dt date not null,
+  transaction_summary varchar(200),
+  transaction_type varchar(100),
+  transaction_amt int,
+  closing_balance int,
+  create_dt varchar(20),
+  primary key (transaction_id)
+);
+
+create table loans (
+  loan_number int not null,
+  customer_id int not null,
+  start_dt date,
+  loan_type varchar(100),
+  total_loan int,
+  amount_paid int,
+  outstanding_amount int,
+  create_dt varchar(20),
+  primary key (loan_number)
+);
+
+create table cards (
+  card_id int not null,
+  card_number varchar(100),
+  customer_id int not null,
+  card_type varchar(100),
+  total_limit int,
+  amount_used int,
+  available_amount int,
+  create_dt date,
+  primary key (card_id)
+);
+
+create table notice_details (
+  notice_id int not null,
+  notice_summary varchar(200),
+  notice_details varchar(500),
+  notic_beg_dt date,
+  notic_end_dt date,
+  create_dt date,
+  update_dt date,
+  primary key (notice_id)
+);
+
+create table contact_messages (
+  contact_id varchar(50) not null,
+  contact_name varchar(50),
+  contact_email varchar(100),
+  subject varchar(500),
+  message varchar(2000),
+  create_dt date,
+  primary key (contact_id)
+);
@@ -0,0 +1,20 @@
+-- Indexes behind the repository queries, QueryPlanChecker warns at startup when one of them is missing.
+
+-- CustomerRepository.findByEmail / findCredentialsByEmail, the email is the login name. Not unique: existing
+-- schemas may hold duplicate emails, CustomerPrincipalLoader then picks the lowest customer id
+create index idx_customer_email on customer (email);
+
+-- join from customer to its authorities in findCredentialsByEmail and the eager Customer.authorities
+create index idx_authorities_customer_id on authorities (customer_id);
+
+-- AccountsRepository.findByCustomerId returns a single account
+create unique index uk_accounts_customer_id on accounts (customer_id);
+
+-- AccountTransactionsRepository.findByCustomerIdOrderByTransactionDtDesc and the keyset pagination of findPageByCustomerId
+create index idx_account_transactions_customer_dt on account_transactions (customer_id, transaction_dt desc, transaction_id desc);
+
+-- LoanRepository.findByCustomerIdOrderByStartDtDesc
+create index idx_loans_customer_start_dt on loans (customer_id, start_dt desc);
+
+-- CardsRepository.findByCustomerId
+create index idx_cards_customer_id on cards (customer_id);
@@ -0,0 +1,2 @@
+-- ids of GenerationType.AUTO entities, Hibernate uses a sequence on H2
+create sequence hibernate_sequence start with 1 increment by 1;
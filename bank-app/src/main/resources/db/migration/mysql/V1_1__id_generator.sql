@@ -0,0 +1,6 @@
+-- ids of GenerationType.AUTO entities, MySQL has no sequences so Hibernate emulates one with a table
+create table hibernate_sequence (
+  next_val bigint
+);
+
+insert into hibernate_sequence values (1);
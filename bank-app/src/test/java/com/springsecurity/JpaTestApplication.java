@@ -0,0 +1,17 @@
+package com.springsecurity;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/*
+    Configuration found by the @DataJpaTest classes below com.springsecurity. It lives outside the packages
+    BankAppApplication scans, so it never ends up in the application context of BankAppApplicationTests.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.springsecurity.model")
+@EnableJpaRepositories("com.springsecurity.repositories")
+public class JpaTestApplication {
+}
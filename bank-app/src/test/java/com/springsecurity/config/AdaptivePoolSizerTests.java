@@ -0,0 +1,40 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptivePoolSizerTests {
+
+    // between 4 and 16 connections in steps of 2, grow above 5 ms wait, back off above 500 ms hold
+    private final AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 16, 2, 5, 500, 10, new SimpleMeterRegistry(),
+            new StaticListableBeanFactory().getBeanProvider(DataSource.class));
+
+    @Test
+    void growsWhenRequestsWaitForConnections() {
+        assertThat(sizer.nextSize(10, 20, 3, 40, 10)).isEqualTo(12);
+        assertThat(sizer.nextSize(16, 20, 3, 40, 16)).isEqualTo(16);
+    }
+
+    @Test
+    void shrinksWhenTheDatabaseIsSlowEvenIfRequestsWait() {
+        assertThat(sizer.nextSize(10, 20, 3, 800, 10)).isEqualTo(8);
+        assertThat(sizer.nextSize(4, 20, 3, 800, 4)).isEqualTo(4);
+    }
+
+    @Test
+    void shrinksIdlePoolAndKeepsBusyOne() {
+        assertThat(sizer.nextSize(10, 0, 0, 40, 5)).isEqualTo(8);
+        assertThat(sizer.nextSize(10, 1, 0, 40, 8)).isEqualTo(10);
+    }
+
+    @Test
+    void fallsBackToWaitingThreadsWithoutTimers() {
+        assertThat(sizer.nextSize(10, Double.NaN, 1, Double.NaN, 10)).isEqualTo(12);
+        assertThat(sizer.nextSize(10, Double.NaN, 0, Double.NaN, 2)).isEqualTo(8);
+    }
+}
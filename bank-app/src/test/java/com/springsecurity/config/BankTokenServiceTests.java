@@ -0,0 +1,79 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BankTokenServiceTests {
+
+    private static final String OLD_KEY = "k1:" + "a".repeat(43) + "=";
+
+    private static final String NEW_KEY = "k2:" + "b".repeat(43) + "=";
+
+    private final Clock clock = Clock.fixed(Instant.parse("2021-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void verifiesIssuedToken() {
+        BankTokenService service = new BankTokenService(true, List.of(OLD_KEY), "k1", 60, clock);
+        String token = service.issue(7, "happy@example.com", AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+        Authentication authentication = service.verify(token);
+
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("happy@example.com");
+        assertThat(authentication.getDetails()).isEqualTo(7);
+        assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void issuesTokensAfterPasswordLoginOnly() {
+        BankTokenService service = new BankTokenService(true, List.of(OLD_KEY), "k1", 60, clock);
+        Authentication token = service.verify(service.issue(7, "happy@example.com", AuthorityUtils.NO_AUTHORITIES));
+
+        assertThat(service.canIssueFor(token)).isFalse();
+        assertThat(((TokenAuthentication) token).getExpiresAt()).isEqualTo(clock.instant().getEpochSecond() + 60);
+        assertThat(service.canIssueFor(new BankAuthenticationToken("happy@example.com", "12345",
+                AuthorityRegistry.setOfNames(List.of("ROLE_USER"))))).isTrue();
+        assertThat(new BankTokenService(false, List.of(OLD_KEY), "k1", 60, clock).canIssueFor(
+                new BankAuthenticationToken("happy@example.com", "12345", AuthoritySet.EMPTY))).isFalse();
+    }
+
+    @Test
+    void acceptsTokensSignedWithRetiredKeyDuringRotation() {
+        String token = new BankTokenService(true, List.of(OLD_KEY), "k1", 60, clock)
+                .issue(7, "happy@example.com", AuthorityUtils.NO_AUTHORITIES);
+
+        BankTokenService rotated = new BankTokenService(true, List.of(OLD_KEY, NEW_KEY), "k2", 60, clock);
+        assertThat(rotated.verify(token).getName()).isEqualTo("happy@example.com");
+
+        BankTokenService withoutOldKey = new BankTokenService(true, List.of(NEW_KEY), "k2", 60, clock);
+        assertThatThrownBy(() -> withoutOldKey.verify(token)).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void rejectsExpiredAndTamperedTokens() {
+        BankTokenService service = new BankTokenService(true, List.of(OLD_KEY), "k1", 60, clock);
+        String token = service.issue(7, "happy@example.com", AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        BankTokenService later = new BankTokenService(true, List.of(OLD_KEY), "k1", 60,
+                Clock.offset(clock, Duration.ofSeconds(61)));
+        assertThatThrownBy(() -> later.verify(token)).hasMessage("Token expired");
+
+        String forged = service.issue(7, "happy@example.com", AuthorityUtils.createAuthorityList("ROLE_ROOT"));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        assertThatThrownBy(() -> service.verify(tampered)).isInstanceOf(BadCredentialsException.class);
+    }
+}
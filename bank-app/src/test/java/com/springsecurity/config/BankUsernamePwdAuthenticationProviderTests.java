@@ -0,0 +1,98 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.CustomerPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BankUsernamePwdAuthenticationProviderTests {
+
+    private static final String USERNAME = "happy@example.com";
+
+    private final AtomicLong now = new AtomicLong(1);
+
+    // 3 failures in 5 minutes lock for 30 seconds, doubling with every further lock
+    private final LoginAttemptTracker loginAttemptTracker =
+            new LoginAttemptTracker(new SimpleMeterRegistry(), 3, 300, 30, 3600, 1000, 24, now::get);
+
+    private final VerifiedCredentialCache verifiedCredentialCache = new VerifiedCredentialCache(true, 1000, 300);
+
+    private final PasswordHashingExecutor passwordHashingExecutor =
+            new PasswordHashingExecutor(NoOpPasswordEncoder.getInstance(), new SimpleMeterRegistry(), 1, 1, 1000);
+
+    private final BankUsernamePwdAuthenticationProvider provider = new BankUsernamePwdAuthenticationProvider();
+
+    BankUsernamePwdAuthenticationProviderTests() {
+        CustomerPrincipalLoader customerPrincipalLoader = new CustomerPrincipalLoader() {
+            @Override
+            public Optional<CustomerPrincipal> loadByEmail(String email) {
+                return Optional.of(new CustomerPrincipal(1, USERNAME, "12345", List.of("ROLE_USER")));
+            }
+        };
+        RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), false, List.of(),
+                new RateLimiter.Rule("credentials", 1, 60), new RateLimiter.Rule("username", 1, 60), 600, 1000,
+                now::get);
+        ReflectionTestUtils.setField(provider, "customerPrincipalLoader", customerPrincipalLoader);
+        ReflectionTestUtils.setField(provider, "passwordHashingExecutor", passwordHashingExecutor);
+        ReflectionTestUtils.setField(provider, "verifiedCredentialCache", verifiedCredentialCache);
+        ReflectionTestUtils.setField(provider, "loginAttemptTracker", loginAttemptTracker);
+        ReflectionTestUtils.setField(provider, "rateLimiter", rateLimiter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void cachedSuccessDoesNotResetTheEscalatingLock() {
+        verifiedCredentialCache.put(USERNAME, "12345", AuthorityRegistry.setOfNames(List.of("ROLE_USER")));
+
+        failTimes(3);
+        assertThat(loginAttemptTracker.isLocked(USERNAME)).isTrue();
+
+        // the real user keeps working from the cache, without wiping the guesser's history
+        assertThat(authenticate("12345").isAuthenticated()).isTrue();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(authenticate("12345").isAuthenticated()).isTrue();
+
+        failTimes(3);
+        // the second lock lasts 60 seconds instead of starting over at 30
+        now.addAndGet(TimeUnit.SECONDS.toNanos(45));
+        assertThat(loginAttemptTracker.isLocked(USERNAME)).isTrue();
+        assertThatThrownBy(() -> authenticate("guess")).isInstanceOf(LockedException.class);
+        assertThat(authenticate("12345").isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void lockedUsernameIsNotVerifiedAgainstTheDatabase() {
+        failTimes(3);
+
+        assertThatThrownBy(() -> authenticate("12345")).isInstanceOf(LockedException.class);
+    }
+
+    private void failTimes(int failures) {
+        for (int i = 0; i < failures; i++) {
+            assertThatThrownBy(() -> authenticate("guess")).isInstanceOf(BadCredentialsException.class);
+        }
+    }
+
+    private Authentication authenticate(String password) {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken(USERNAME, password));
+    }
+}
@@ -0,0 +1,80 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.model.SecurityCustomer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineUserCacheTests {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CaffeineUserCache cache = new CaffeineUserCache(100, Duration.ofSeconds(60), meterRegistry,
+            now::get);
+
+    @Test
+    void returnsThePutUserUntilItIsRemoved() {
+        UserDetails happy = user(1, "happy@example.com");
+        cache.putUserInCache(happy);
+        cache.putUserInCache(user(2, "other@example.com"));
+
+        assertThat(cache.getUserFromCache("happy@example.com")).isSameAs(happy);
+        assertThat(cache.getUserFromCache("nobody@example.com")).isNull();
+
+        cache.removeUserFromCache("happy@example.com");
+
+        assertThat(cache.getUserFromCache("happy@example.com")).isNull();
+        assertThat(cache.getUserFromCache("other@example.com")).isNotNull();
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresUsersAfterTheTimeToLive() {
+        cache.putUserInCache(user(1, "happy@example.com"));
+
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertThat(cache.getUserFromCache("happy@example.com")).isNotNull();
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.getUserFromCache("happy@example.com")).isNull();
+    }
+
+    @Test
+    void evictsBeyondTheMaximumSize() {
+        CaffeineUserCache small = new CaffeineUserCache(2, Duration.ofSeconds(60), meterRegistry, now::get);
+        for (int i = 0; i < 10; i++) {
+            small.putUserInCache(user(i, "customer" + i + "@example.com"));
+        }
+
+        long cached = 0;
+        for (int i = 0; i < 10; i++) {
+            if (small.getUserFromCache("customer" + i + "@example.com") != null) {
+                cached++;
+            }
+        }
+        assertThat(cached).isLessThanOrEqualTo(2);
+        assertThat(small.getEvictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void publishesCacheMeters() {
+        cache.getUserFromCache("nobody@example.com");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private static UserDetails user(int id, String email) {
+        return new SecurityCustomer(new CustomerPrincipal(id, email, "$2a$10$hash", List.of("ROLE_USER")));
+    }
+}
@@ -0,0 +1,116 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionHoldTimerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConnectionHoldPostProcessor postProcessor;
+
+    private final DataSource dataSource;
+
+    private final SampleRepository repository;
+
+    ConnectionHoldTimerTests() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        postProcessor = new ConnectionHoldPostProcessor(true, beanFactory.getBeanProvider(MeterRegistry.class));
+        dataSource = (DataSource) postProcessor.postProcessAfterInitialization(
+                new DriverManagerDataSource("jdbc:h2:mem:connection-hold"), "dataSource");
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepositoryImpl(dataSource));
+        proxyFactory.addInterface(SampleRepository.class);
+        repository = (SampleRepository) postProcessor.postProcessAfterInitialization(proxyFactory.getProxy(),
+                "sampleRepository");
+    }
+
+    @Test
+    void recordsHoldPerRepositoryMethod() throws SQLException {
+        repository.findName();
+        repository.findName();
+        dataSource.getConnection().close();
+
+        assertThat(holds("SampleRepository.findName").count()).isEqualTo(2);
+        assertThat(holds("none").count()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesTheConnectionWhenTheRepositoryMethodFails() throws SQLException {
+        assertThatThrownBy(repository::failAfterCheckout).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.lastConnection().isClosed()).isTrue();
+        assertThat(holds("SampleRepository.failAfterCheckout").count()).isEqualTo(1);
+
+        // the failed method is no longer the current one
+        dataSource.getConnection().close();
+        assertThat(holds("none").count()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesBeansUntouchedWhenDisabled() {
+        DataSource plain = new DriverManagerDataSource("jdbc:h2:mem:connection-hold");
+        ConnectionHoldPostProcessor disabled = new ConnectionHoldPostProcessor(false,
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        assertThat(disabled.postProcessAfterInitialization(plain, "dataSource")).isSameAs(plain);
+    }
+
+    private Timer holds(String method) {
+        return meterRegistry.get(ConnectionHoldTimer.METER_NAME).tag("method", method).timer();
+    }
+
+    interface SampleRepository extends Repository<Object, Long> {
+
+        String findName() throws SQLException;
+
+        void failAfterCheckout() throws SQLException;
+
+        Connection lastConnection();
+    }
+
+    static class SampleRepositoryImpl implements SampleRepository {
+
+        private final DataSource dataSource;
+
+        private Connection lastConnection;
+
+        SampleRepositoryImpl(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public String findName() throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                lastConnection = connection;
+                return connection.getMetaData().getDatabaseProductName();
+            }
+        }
+
+        @Override
+        public void failAfterCheckout() throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                lastConnection = connection;
+                throw new IllegalStateException("query failed");
+            }
+        }
+
+        @Override
+        public Connection lastConnection() {
+            return lastConnection;
+        }
+    }
+}
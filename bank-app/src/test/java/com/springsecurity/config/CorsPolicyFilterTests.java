@@ -0,0 +1,68 @@
+package com.springsecurity.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorsPolicyFilterTests {
+
+    private final CorsPolicyFilter filter = new CorsPolicyFilter(new CorsPolicy(
+            List.of("http://localhost:4200", "https://bank.example.com/"), List.of(HttpHeaders.AUTHORIZATION), 3600));
+
+    @Test
+    void answersPreflightWithoutCallingTheChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/myAccount");
+        request.addHeader(HttpHeaders.ORIGIN, "https://bank.example.com");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("https://bank.example.com");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS)).isEqualTo("true");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS)).isEqualTo("authorization");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE)).isEqualTo("3600");
+    }
+
+    @Test
+    void addsHeadersToActualRequestFromAllowedOrigin() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/myAccount");
+        request.addHeader(HttpHeaders.ORIGIN, "http://localhost:4200");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("http://localhost:4200");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS)).isEqualTo(HttpHeaders.AUTHORIZATION);
+    }
+
+    @Test
+    void rejectsOtherOriginsButNotSameOriginRequests() throws Exception {
+        MockHttpServletRequest foreign = new MockHttpServletRequest("OPTIONS", "/myAccount");
+        foreign.addHeader(HttpHeaders.ORIGIN, "https://evil.example.com");
+        foreign.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(foreign, rejected, rejectedChain);
+        assertThat(rejected.getStatus()).isEqualTo(403);
+        assertThat(rejectedChain.getRequest()).isNull();
+
+        MockHttpServletRequest sameOrigin = new MockHttpServletRequest("POST", "/contact");
+        sameOrigin.addHeader(HttpHeaders.ORIGIN, "http://localhost");
+        MockFilterChain sameOriginChain = new MockFilterChain();
+        filter.doFilter(sameOrigin, new MockHttpServletResponse(), sameOriginChain);
+        assertThat(sameOriginChain.getRequest()).isSameAs(sameOrigin);
+    }
+}
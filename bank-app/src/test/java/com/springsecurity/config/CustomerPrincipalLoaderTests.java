@@ -0,0 +1,99 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.Authority;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.model.SecurityCustomer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CustomerPrincipalLoader.class)
+class CustomerPrincipalLoaderTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CustomerPrincipalLoader customerPrincipalLoader;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setName("Happy");
+        customer.setEmail("happy@example.com");
+        customer.setPwd("$2a$10$hash");
+        customer.setRole("user");
+        entityManager.persist(customer);
+        persistAuthority(customer, "ROLE_USER");
+        persistAuthority(customer, "ROLE_ADMIN");
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsPrincipalWithOneStatementAndNoEntities() {
+        Optional<CustomerPrincipal> principal = customerPrincipalLoader.loadByEmail("happy@example.com");
+
+        assertThat(principal).isPresent();
+        assertThat(principal.get().getEmail()).isEqualTo("happy@example.com");
+        assertThat(principal.get().getPwd()).isEqualTo("$2a$10$hash");
+        assertThat(principal.get().getAuthorityNames()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void returnsEmptyForUnknownEmail() {
+        assertThat(customerPrincipalLoader.loadByEmail("nobody@example.com")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /*
+        Authorities come from the authorities table, the table the login token has always been built from.
+        The customer.role column is no longer consulted, a customer without authority rows has none.
+     */
+    @Test
+    void securityCustomerTakesAuthoritiesFromTheAuthoritiesTableNotTheRoleColumn() {
+        Customer roleOnly = new Customer();
+        roleOnly.setName("Grumpy");
+        roleOnly.setEmail("grumpy@example.com");
+        roleOnly.setPwd("$2a$10$hash");
+        roleOnly.setRole("admin");
+        entityManager.persistAndFlush(roleOnly);
+
+        SecurityCustomer happy = new SecurityCustomer(customerPrincipalLoader.loadByEmail("happy@example.com").get());
+        SecurityCustomer grumpy = new SecurityCustomer(customerPrincipalLoader.loadByEmail("grumpy@example.com").get());
+
+        assertThat(happy.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(grumpy.getAuthorities()).isEmpty();
+    }
+
+    private void persistAuthority(Customer customer, String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        authority.setCustomer(customer);
+        entityManager.persist(authority);
+    }
+}
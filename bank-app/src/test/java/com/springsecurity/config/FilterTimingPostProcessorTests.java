@@ -0,0 +1,129 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterTimingPostProcessorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void recordsTimeOfEachFilterWithoutTheFiltersAfterIt() throws Exception {
+        Filter proxy = postProcess(new FilterChainProxy(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE,
+                new SlowFilter(40), new AuthenticatingFilter(10))));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/myAccount");
+        request.setServletPath("/myAccount");
+
+        proxy.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+                sleep(20);
+            }
+        }));
+
+        double slow = totalMillis("SlowFilter");
+        double authenticating = totalMillis("AuthenticatingFilter");
+        double application = totalMillis("application");
+        assertThat(slow).isBetween(40.0, 69.0);
+        assertThat(authenticating).isBetween(10.0, 29.0);
+        assertThat(application).isGreaterThanOrEqualTo(20.0);
+    }
+
+    @Test
+    void leavesChainUntouchedWhenDisabled() {
+        FilterChainProxy proxy = new FilterChainProxy(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE));
+        FilterTimingPostProcessor postProcessor = new FilterTimingPostProcessor(false,
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                new DefaultListableBeanFactory().getBeanProvider(UrlAuthorizationTable.class));
+
+        assertThat(postProcessor.postProcessAfterInitialization(proxy, "springSecurityFilterChain")).isSameAs(proxy);
+    }
+
+    private Filter postProcess(FilterChainProxy proxy) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        beanFactory.registerSingleton("urlAuthorizationTable", new SecurityPolicyConfig().urlAuthorizationTable());
+        FilterTimingPostProcessor postProcessor = new FilterTimingPostProcessor(true,
+                beanFactory.getBeanProvider(MeterRegistry.class),
+                beanFactory.getBeanProvider(UrlAuthorizationTable.class));
+        return (Filter) postProcessor.postProcessAfterInitialization(proxy, "springSecurityFilterChain");
+    }
+
+    private double totalMillis(String filter) {
+        Timer timer = meterRegistry.get(FilterChainTimer.METER_NAME)
+                .tags("filter", filter, "endpoint", "/myAccount", "outcome", "authenticated")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        return timer.totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class SlowFilter extends OncePerRequestFilter {
+
+        private final long millis;
+
+        SlowFilter(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            sleep(millis);
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    static class AuthenticatingFilter extends SlowFilter {
+
+        AuthenticatingFilter(long millis) {
+            super(millis);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "happy@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
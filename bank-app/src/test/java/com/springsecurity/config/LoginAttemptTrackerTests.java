@@ -0,0 +1,32 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptTrackerTests {
+
+    private final LoginAttemptTracker tracker = new LoginAttemptTracker(new SimpleMeterRegistry(), 3, 300, 30, 3600, 1000, 24);
+
+    @Test
+    void locksAfterMaxFailuresInsideWindow() {
+        tracker.recordFailure("happy@example.com");
+        tracker.recordFailure("happy@example.com");
+        assertThat(tracker.isLocked("happy@example.com")).isFalse();
+
+        tracker.recordFailure("happy@example.com");
+        assertThat(tracker.isLocked("happy@example.com")).isTrue();
+        assertThat(tracker.isLocked("other@example.com")).isFalse();
+    }
+
+    @Test
+    void successfulLoginClearsFailures() {
+        tracker.recordFailure("happy@example.com");
+        tracker.recordFailure("happy@example.com");
+        tracker.recordSuccess("happy@example.com");
+        tracker.recordFailure("happy@example.com");
+
+        assertThat(tracker.isLocked("happy@example.com")).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+package com.springsecurity.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverloadAwareAuthenticationHandlerTests {
+
+    private final OverloadAwareAuthenticationHandler handler;
+
+    OverloadAwareAuthenticationHandlerTests() {
+        BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+        basicEntryPoint.setRealmName("Realm");
+        handler = new OverloadAwareAuthenticationHandler(basicEntryPoint,
+                new SimpleUrlAuthenticationFailureHandler("/login?error"));
+    }
+
+    @Test
+    void answersServiceUnavailableWhenHashingWasRejected() throws Exception {
+        MockHttpServletResponse basic = new MockHttpServletResponse();
+        handler.commence(new MockHttpServletRequest("GET", "/myAccount"), basic,
+                new PasswordHashingRejectedException("Too many concurrent logins, please retry shortly"));
+        MockHttpServletResponse form = new MockHttpServletResponse();
+        handler.onAuthenticationFailure(new MockHttpServletRequest("POST", "/login"), form,
+                new PasswordHashingRejectedException("Too many concurrent logins, please retry shortly"));
+
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{basic, form}) {
+            assertThat(response.getStatus()).isEqualTo(503);
+            assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void answersTooManyRequestsWhenTheUsernameIsRateLimited() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.commence(new MockHttpServletRequest("GET", "/myAccount"), response,
+                new UsernameRateLimitedException("Too many login attempts for this user, please retry later", 42));
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("42");
+    }
+
+    @Test
+    void leavesOtherFailuresToTheRegularHandling() throws Exception {
+        MockHttpServletResponse basic = new MockHttpServletResponse();
+        handler.commence(new MockHttpServletRequest("GET", "/myAccount"), basic,
+                new BadCredentialsException("Invalid password!"));
+        MockHttpServletResponse form = new MockHttpServletResponse();
+        handler.onAuthenticationFailure(new MockHttpServletRequest("POST", "/login"), form,
+                new BadCredentialsException("Invalid password!"));
+
+        assertThat(basic.getStatus()).isEqualTo(401);
+        assertThat(basic.getHeader(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Basic realm=\"Realm\"");
+        assertThat(form.getRedirectedUrl()).isEqualTo("/login?error");
+    }
+}
@@ -0,0 +1,94 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /* "slow" blocks until the test releases it, every other password matches itself */
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if ("slow".contentEquals(rawPassword)) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private final PasswordHashingExecutor executor =
+            new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 1, 1, 200);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void matchesReturnsTheResult() {
+        assertThat(executor.matches("12345", "12345")).isTrue();
+        assertThat(executor.matches("12345", "54321")).isFalse();
+    }
+
+    @Test
+    void matchesIsRejectedWhenThePoolAndQueueAreFull() {
+        executor.matchesAsync("slow", "slow");
+        executor.matchesAsync("queued", "queued");
+
+        assertThatThrownBy(() -> executor.matches("rejected", "rejected"))
+                .isInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("Too many concurrent logins");
+    }
+
+    @Test
+    void matchesGivesUpAfterTheMaximumWait() {
+        executor.matchesAsync("slow", "slow");
+
+        assertThatThrownBy(() -> executor.matches("queued", "queued"))
+                .isInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    @Test
+    void matchesAsyncCompletesWithTheResult() throws Exception {
+        assertThat(executor.matchesAsync("12345", "12345").get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.matchesAsync("12345", "54321").get(1, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void matchesAsyncFailsWhenSaturatedOrTooSlow() {
+        CompletableFuture<Boolean> slow = executor.matchesAsync("slow", "slow");
+        executor.matchesAsync("queued", "queued");
+
+        assertThatThrownBy(() -> executor.matchesAsync("rejected", "rejected").get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("Too many concurrent logins");
+        assertThatThrownBy(() -> slow.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("timed out");
+    }
+}
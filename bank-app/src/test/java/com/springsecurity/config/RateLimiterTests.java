@@ -0,0 +1,74 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTests {
+
+    private static final int MAX_ENTRIES = 10;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final RateLimiter.Rule login = new RateLimiter.Rule("/login", 3, 60);
+
+    private final RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), true, List.of(login),
+            new RateLimiter.Rule("credentials", 3, 60), new RateLimiter.Rule("username", 1, 60), 600, MAX_ENTRIES,
+            now::get);
+
+    @Test
+    void allowsBurstThenRefillsAtTheSustainedRate() {
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isEqualTo(TimeUnit.SECONDS.toNanos(20));
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.2")).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(login, "10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void exhaustedUsernameThrowsWithRetryAfter() {
+        rateLimiter.chargeUsername("happy@example.com");
+
+        assertThatThrownBy(() -> rateLimiter.chargeUsername("happy@example.com"))
+                .isInstanceOfSatisfying(UsernameRateLimitedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(60));
+    }
+
+    @Test
+    void trafficFromManyAddressesDoesNotDisableUsernameLimits() {
+        for (int i = 0; i < 100 * MAX_ENTRIES; i++) {
+            rateLimiter.tryAcquire(login, "10.0." + (i / 256) + '.' + (i % 256));
+        }
+
+        rateLimiter.chargeUsername("happy@example.com");
+        assertThatThrownBy(() -> rateLimiter.chargeUsername("happy@example.com"))
+                .isInstanceOf(UsernameRateLimitedException.class);
+    }
+
+    @Test
+    void fullUsernameCacheStillLimitsNewUsernames() {
+        for (int i = 0; i < 100 * MAX_ENTRIES; i++) {
+            rateLimiter.chargeUsername("user" + i + "@example.com");
+        }
+
+        rateLimiter.chargeUsername("happy@example.com");
+        assertThatThrownBy(() -> rateLimiter.chargeUsername("happy@example.com"))
+                .isInstanceOf(UsernameRateLimitedException.class);
+    }
+
+    @Test
+    void rejectsRuleWithoutRequests() {
+        assertThatThrownBy(() -> new RateLimiter.Rule("/login", 0, 60)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter.Rule("/login", 10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.springsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimitingFilter filter = new RateLimitingFilter(new RateLimiter(meterRegistry, true,
+            List.of(new RateLimiter.Rule("/login", 2, 60)), new RateLimiter.Rule("credentials", 1, 60),
+            new RateLimiter.Rule("username", 60, 60), 600, 1000, System::nanoTime), meterRegistry);
+
+    @Test
+    void answersTooManyRequestsWithRetryAfterOnceTheEndpointRuleIsUsedUp() throws Exception {
+        assertThat(send(new MockHttpServletRequest("POST", "/login")).getStatus()).isEqualTo(200);
+        assertThat(send(new MockHttpServletRequest("POST", "/login")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send(new MockHttpServletRequest("POST", "/login"));
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(meterRegistry.counter("bank.security.rate-limit.rejected", "key", "ip").count()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsCredentialedRequestsOutsideTheRulesPerAddress() throws Exception {
+        assertThat(send(basic("/myAccount")).getStatus()).isEqualTo(200);
+        assertThat(send(basic("/myAccount")).getStatus()).isEqualTo(429);
+
+        // anonymous requests to unlisted endpoints are not limited
+        assertThat(send(new MockHttpServletRequest("GET", "/myAccount")).getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        request.setServletPath(request.getRequestURI());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest basic(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                .encodeToString("happy@example.com:12345".getBytes(StandardCharsets.UTF_8)));
+        return request;
+    }
+}
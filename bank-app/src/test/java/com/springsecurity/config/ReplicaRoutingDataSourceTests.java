@@ -0,0 +1,132 @@
+package com.springsecurity.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final DataSource primary = database("primary");
+
+    private final DataSource replica = database("replica");
+
+    /* a replica whose database is down */
+    private final DataSource unreachable = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("Connection refused");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Connection refused");
+        }
+    };
+
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToTheReplica() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        Database database = new Database(replicas);
+
+        assertThat(database.read(true)).isEqualTo("replica");
+        assertThat(database.read(false)).isEqualTo("primary");
+        assertThat(database.jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void pinsUsersThatWroteToThePrimary() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        Database database = new Database(replicas);
+
+        login("alice");
+        database.read(false);
+        assertThat(database.read(true)).isEqualTo("primary");
+
+        login("bob");
+        assertThat(database.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void ejectsReplicaThatFailsAndReadsFromTheOthers() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("down", unreachable);
+        replicas.put("replica", replica);
+        Database database = new Database(replicas);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(database.read(true)).isIn("primary", "replica");
+        }
+        assertThat(routing.getHealthyReplicaCount()).isEqualTo(1);
+        for (int i = 0; i < 4; i++) {
+            assertThat(database.read(true)).isEqualTo("replica");
+        }
+
+        routing.checkReplicas();
+        assertThat(routing.getHealthyReplicaCount()).isEqualTo(1);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private class Database {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final DataSourceTransactionManager transactionManager;
+
+        Database(Map<String, DataSource> replicas) {
+            routing = new ReplicaRoutingDataSource(primary, replicas,
+                    new ReadYourWritesPinning(Duration.ofMinutes(1), 100), 60_000);
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        String read(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.springsecurity.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortableIdGeneratorTests {
+
+    private static final int THREADS = 8;
+
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void generatesUniqueMonotonicIdsUnderContention() throws Exception {
+        SortableIdGenerator generator = new SortableIdGenerator(42);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = results.get(t).get();
+            for (int i = 1; i < ids.length; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        executor.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).isNotEqualTo(all[i - 1]);
+        }
+        assertThat((all[0] >>> SortableIdGenerator.SEQUENCE_BITS) & ((1 << SortableIdGenerator.NODE_BITS) - 1)).isEqualTo(42);
+    }
+
+    @Test
+    void stringFormsSortLikeTheNumbers() {
+        SortableIdGenerator generator = new SortableIdGenerator(1);
+        String first = generator.nextTransactionId();
+        String second = generator.nextTransactionId();
+
+        assertThat(first).hasSize(19);
+        assertThat(first.compareTo(second)).isNegative();
+        assertThat(generator.nextContactId()).startsWith("SR").hasSize(21);
+    }
+}
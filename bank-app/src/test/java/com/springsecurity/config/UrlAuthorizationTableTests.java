@@ -0,0 +1,66 @@
+package com.springsecurity.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlAuthorizationTableTests {
+
+    private final UrlAuthorizationTable table = new SecurityPolicyConfig().urlAuthorizationTable();
+
+    @Test
+    void appliesRolesOfTheMatchingRule() {
+        Authentication user = authenticated("ROLE_USER");
+        Authentication admin = authenticated("ROLE_ADMIN");
+
+        assertThat(table.isAllowed("/myAccount", user)).isTrue();
+        assertThat(table.isAllowed("/myAccount", admin)).isFalse();
+        assertThat(table.isAllowed("/myBalance", admin)).isTrue();
+        assertThat(table.isAllowed("/myLoans", user)).isFalse();
+        assertThat(table.isAllowed("/myCards", authenticated())).isTrue();
+        assertThat(table.isAllowed("/myTransactions/export", user)).isTrue();
+    }
+
+    @Test
+    void requiresAuthenticationForSecuredPathsOnly() {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertThat(table.isAllowed("/myCards", anonymous)).isFalse();
+        assertThat(table.isAllowed("/myCards", null)).isFalse();
+        assertThat(table.isAllowed("/contact", anonymous)).isTrue();
+        assertThat(table.isAllowed("/notices", null)).isTrue();
+        assertThat(table.isAllowed("/unmapped", null)).isTrue();
+    }
+
+    @Test
+    void ignoresTrailingSlash() {
+        assertThat(table.isAllowed("/myAccount/", authenticated("ROLE_ADMIN"))).isFalse();
+        assertThat(table.isAllowed("/myAccount/", authenticated("ROLE_USER"))).isTrue();
+    }
+
+    @Test
+    void firstDeclaredMatchingPatternWins() {
+        UrlAuthorizationTable wildcards = UrlAuthorizationTable.builder()
+                .permitAll("/api/*/public")
+                .hasRole("/api/**", "ADMIN")
+                .permitAll("/api/reports/public/**")
+                .build();
+        Authentication user = authenticated("ROLE_USER");
+
+        assertThat(wildcards.isAllowed("/api/reports/public", null)).isTrue();
+        assertThat(wildcards.isAllowed("/api/reports/public/2021", user)).isFalse();
+        assertThat(wildcards.isAllowed("/api", user)).isFalse();
+        assertThat(wildcards.isAllowed("/api/reports/public/2021", authenticated("ROLE_ADMIN"))).isTrue();
+        assertThat(wildcards.isAllowed("/apis", null)).isTrue();
+    }
+
+    private static Authentication authenticated(String... authorities) {
+        return new UsernamePasswordAuthenticationToken("happy@example.com", null,
+                AuthorityUtils.createAuthorityList(authorities));
+    }
+}
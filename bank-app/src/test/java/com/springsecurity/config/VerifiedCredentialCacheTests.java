@@ -0,0 +1,44 @@
+package com.springsecurity.config;
+
+import com.springsecurity.model.AuthorityRegistry;
+import com.springsecurity.model.AuthoritySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedCredentialCacheTests {
+
+    private final AuthoritySet authorities = AuthorityRegistry.setOfNames(List.of("ROLE_USER"));
+
+    private final VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 1000, 300);
+
+    @Test
+    void hitsOnlyWithTheVerifiedPassword() {
+        cache.put("happy@example.com", "12345", authorities);
+
+        assertThat(cache.getAuthorities("happy@example.com", "12345")).isSameAs(authorities);
+        assertThat(cache.getAuthorities("happy@example.com", "54321")).isNull();
+        assertThat(cache.getAuthorities("other@example.com", "12345")).isNull();
+    }
+
+    @Test
+    void missesAfterInvalidate() {
+        cache.put("happy@example.com", "12345", authorities);
+        cache.put("other@example.com", "12345", authorities);
+
+        cache.invalidate("happy@example.com");
+
+        assertThat(cache.getAuthorities("happy@example.com", "12345")).isNull();
+        assertThat(cache.getAuthorities("other@example.com", "12345")).isSameAs(authorities);
+    }
+
+    @Test
+    void neverHitsWhenDisabled() {
+        VerifiedCredentialCache disabled = new VerifiedCredentialCache(false, 1000, 300);
+        disabled.put("happy@example.com", "12345", authorities);
+
+        assertThat(disabled.getAuthorities("happy@example.com", "12345")).isNull();
+    }
+}
@@ -0,0 +1,114 @@
+package com.springsecurity.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.model.Notice;
+import com.springsecurity.repositories.NoticeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ActiveNoticesCache.class, JacksonAutoConfiguration.class})
+class ActiveNoticesCacheTests {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActiveNoticesCache activeNoticesCache;
+
+    @Autowired
+    private NoticeRepository noticeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rebuildsWhenANoticeIsWrittenThroughJpa() {
+        persist("Always", LocalDate.of(2000, 1, 1), LocalDate.of(9999, 12, 31));
+        ActiveNoticesCache.Snapshot before = activeNoticesCache.get();
+        assertThat(activeNoticesCache.get()).isSameAs(before);
+
+        // NoticeChangeListener publishes NoticeChangedEvent on flush
+        persist("Also always", LocalDate.of(2000, 1, 1), LocalDate.of(9999, 12, 31));
+
+        ActiveNoticesCache.Snapshot after = activeNoticesCache.get();
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+        assertThat(body(after)).contains("Always", "Also always");
+    }
+
+    @Test
+    void rollsOverWithTheClockNotTheDatabase() {
+        persist("Until the 20th", LocalDate.of(2020, 12, 1), LocalDate.of(2020, 12, 20));
+        persist("From the 21st", LocalDate.of(2020, 12, 21), LocalDate.of(2020, 12, 31));
+        MutableClock clock = new MutableClock(LocalDateTime.of(2020, 12, 20, 23, 59, 59).atZone(ZONE).toInstant());
+        ActiveNoticesCache cache = new ActiveNoticesCache(clock);
+        ReflectionTestUtils.setField(cache, "noticeRepository", noticeRepository);
+        ReflectionTestUtils.setField(cache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(cache, "maxAgeSeconds", 3600L);
+
+        ActiveNoticesCache.Snapshot lastOfTheDay = cache.get();
+        assertThat(body(lastOfTheDay)).contains("Until the 20th").doesNotContain("From the 21st");
+
+        clock.instant = clock.instant.plusSeconds(2);
+
+        ActiveNoticesCache.Snapshot nextDay = cache.get();
+        assertThat(nextDay).isNotSameAs(lastOfTheDay);
+        assertThat(body(nextDay)).contains("From the 21st").doesNotContain("Until the 20th");
+        assertThat(cache.get()).isSameAs(nextDay);
+    }
+
+    private void persist(String summary, LocalDate begin, LocalDate end) {
+        Notice notice = new Notice();
+        notice.setNoticeSummary(summary);
+        notice.setNoticeDetails(summary);
+        notice.setNoticBegDt(Date.from(begin.atStartOfDay(ZONE).toInstant()));
+        notice.setNoticEndDt(Date.from(end.atStartOfDay(ZONE).toInstant()));
+        entityManager.persistAndFlush(notice);
+    }
+
+    private static String body(ActiveNoticesCache.Snapshot snapshot) {
+        return new String(snapshot.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.springsecurity.controllers;
+
+import com.springsecurity.config.DashboardQueryExecutor;
+import com.springsecurity.config.SecurityPolicyConfig;
+import com.springsecurity.model.AccountView;
+import com.springsecurity.model.CardView;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.Dashboard;
+import com.springsecurity.model.LoanView;
+import com.springsecurity.repositories.AccountTransactionsRepository;
+import com.springsecurity.repositories.AccountsRepository;
+import com.springsecurity.repositories.CardsRepository;
+import com.springsecurity.repositories.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardControllerTests {
+
+    private final DashboardController controller = new DashboardController();
+
+    private final DashboardQueryExecutor executor = new DashboardQueryExecutor(4, 16, false);
+
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+
+    private final Set<String> queried = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch releaseLoans = new CountDownLatch(1);
+
+    private final CountDownLatch loansReturned = new CountDownLatch(1);
+
+    private volatile boolean slowLoans;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "accountsRepository", repository(AccountsRepository.class,
+                "account", () -> new AccountView(1, 100, "Savings", "Main Street", "2020-12-20")));
+        ReflectionTestUtils.setField(controller, "accountTransactionsRepository",
+                repository(AccountTransactionsRepository.class, "transactions", Collections::emptyList));
+        ReflectionTestUtils.setField(controller, "loanRepository", repository(LoanRepository.class, "loans", () -> {
+            try {
+                if (slowLoans) {
+                    releaseLoans.await(10, TimeUnit.SECONDS);
+                }
+                return Collections.singletonList(new LoanView(1, 1, null, "Home", 200000, 50000, 150000, null));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                loansReturned.countDown();
+            }
+        }));
+        ReflectionTestUtils.setField(controller, "cardsRepository", repository(CardsRepository.class, "cards",
+                () -> Collections.singletonList(new CardView(1, 1, "4565XXXX4656", "Credit", 10000, 500, 9500, null))));
+        ReflectionTestUtils.setField(controller, "dashboardQueryExecutor", executor);
+        ReflectionTestUtils.setField(controller, "urlAuthorizationTable", new SecurityPolicyConfig().urlAuthorizationTable());
+        ReflectionTestUtils.setField(controller, "transactionManager", new RecordingTransactionManager());
+        ReflectionTestUtils.setField(controller, "sectionTimeoutMillis", 300L);
+        ReflectionTestUtils.setField(controller, "transactionCount", 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseLoans.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void returnsEverySectionTheCustomerMayRead() {
+        Dashboard dashboard = controller.getDashboard(customer(), new TestingAuthenticationToken("happy", "12345",
+                "ROLE_USER", "ROLE_ROOT"));
+
+        assertThat(dashboard.getAccount().getAccountNumber()).isEqualTo(100);
+        assertThat(dashboard.getTransactions()).isEmpty();
+        assertThat(dashboard.getLoans()).hasSize(1);
+        assertThat(dashboard.getCards()).hasSize(1);
+        assertThat(dashboard.getForbiddenSections()).isEmpty();
+        assertThat(dashboard.getUnavailableSections()).isEmpty();
+    }
+
+    @Test
+    void cancelsASlowSectionAndReturnsTheOthers() throws InterruptedException {
+        slowLoans = true;
+        long start = System.nanoTime();
+
+        Dashboard dashboard = controller.getDashboard(customer(), new TestingAuthenticationToken("happy", "12345",
+                "ROLE_USER", "ROLE_ROOT"));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(dashboard.getUnavailableSections()).containsExactly("loans");
+        assertThat(dashboard.getAccount()).isNotNull();
+        assertThat(dashboard.getTransactions()).isNotNull();
+        assertThat(dashboard.getCards()).hasSize(1);
+        assertThat(dashboard.getLoans()).isNull();
+        // the driver cancels the query at the transaction timeout, rounded up to whole seconds
+        assertThat(transactions).hasSize(4).allSatisfy(definition -> {
+            assertThat(definition.isReadOnly()).isTrue();
+            assertThat(definition.getTimeout()).isEqualTo(1);
+        });
+
+        // a result arriving after the deadline is dropped, only the request thread stores section results
+        releaseLoans.countDown();
+        assertThat(loansReturned.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dashboard.getLoans()).isNull();
+    }
+
+    @Test
+    void skipsSectionsTheCustomerMayNotRead() {
+        Dashboard user = controller.getDashboard(customer(), new TestingAuthenticationToken("happy", "12345",
+                "ROLE_USER"));
+
+        assertThat(user.getForbiddenSections()).containsExactly("loans");
+        assertThat(user.getLoans()).isNull();
+        assertThat(user.getAccount()).isNotNull();
+        assertThat(queried).doesNotContain("loans");
+
+        Dashboard admin = controller.getDashboard(customer(), new TestingAuthenticationToken("admin", "12345",
+                "ROLE_ADMIN"));
+
+        assertThat(admin.getForbiddenSections()).containsExactly("account", "loans");
+        assertThat(admin.getTransactions()).isNotNull();
+        assertThat(admin.getCards()).hasSize(1);
+        assertThat(admin.getUnavailableSections()).isEmpty();
+        assertThat(queried).doesNotContain("loans");
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1);
+        return customer;
+    }
+
+    /*
+        Every query method of the repository answers with the supplier, nothing else is expected to be called.
+     */
+    private <T> T repository(Class<T> type, String section, Supplier<?> answer) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return section;
+                        default:
+                            break;
+                    }
+                    queried.add(section);
+                    return answer.get();
+                }));
+    }
+
+    private class RecordingTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            transactions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.springsecurity.controllers;
+
+import com.springsecurity.model.Notice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({NoticesController.class, ActiveNoticesCache.class, JacksonAutoConfiguration.class})
+class NoticesControllerTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NoticesController noticesController;
+
+    @BeforeEach
+    void setUp() {
+        Notice notice = new Notice();
+        notice.setNoticeSummary("Home loan interest rates reduced");
+        notice.setNoticBegDt(new Date(0));
+        notice.setNoticEndDt(new Date(Long.MAX_VALUE / 2));
+        entityManager.persistAndFlush(notice);
+    }
+
+    @Test
+    void servesTheSnapshotWithAStrongEtag() {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ResponseEntity<byte[]> response = noticesController.getNotices(
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/notices"), servletResponse));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).matches("\"[0-9a-f]{32}\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(new String(response.getBody())).contains("Home loan interest rates reduced");
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304() {
+        String etag = noticesController.getNotices(new ServletWebRequest(new MockHttpServletRequest("GET", "/notices"),
+                new MockHttpServletResponse())).getHeaders().getETag();
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/notices");
+        revalidation.addHeader("If-None-Match", etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ResponseEntity<byte[]> response = noticesController.getNotices(new ServletWebRequest(revalidation, servletResponse));
+
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(servletResponse.getHeader("ETag")).isEqualTo(etag);
+    }
+
+    @Test
+    void answersAStaleIfNoneMatchWithTheBody() {
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/notices");
+        revalidation.addHeader("If-None-Match", "\"stale\"");
+        ResponseEntity<byte[]> response = noticesController.getNotices(
+                new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+package com.springsecurity.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springsecurity.config.BankUserDetails;
+import com.springsecurity.model.Customer;
+import com.springsecurity.model.CustomerPrincipal;
+import com.springsecurity.model.SecurityCustomer;
+import com.springsecurity.repositories.AccountTransactionsExportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionExportControllerTests {
+
+    private static final String OWNER = "owner@bank.test";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final TransactionExportController controller = new TransactionExportController();
+
+    private SingleConnectionDataSource dataSource;
+
+    private TimeZone defaultZone;
+
+    @BeforeEach
+    void setUp() {
+        // a zone west of UTC, where reading a DATE through a Timestamp lands on the previous day
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:transaction-export", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table account_transactions (transaction_id varchar(200), account_number bigint, " +
+                "customer_id int, transaction_dt date, transaction_summary varchar(200), transaction_type varchar(100), " +
+                "transaction_amt int, closing_balance int, create_dt varchar(100))");
+        jdbcTemplate.update("insert into account_transactions values ('T1', 100, 1, date '2020-12-20', 'Coffee Shop', " +
+                "'Withdrawal', 30, 34500, '2020-12-20')");
+        jdbcTemplate.update("insert into account_transactions values ('T2', 100, 1, date '2020-12-21', " +
+                "'Refund, \"Online\" Store', 'Deposit', 20, 34520, '2020-12-21')");
+        jdbcTemplate.update("insert into account_transactions values ('X1', 200, 2, date '2020-12-21', 'Other', " +
+                "'Deposit', 10, 10, '2020-12-21')");
+
+        AccountTransactionsExportRepository exportRepository = new AccountTransactionsExportRepository();
+        ReflectionTestUtils.setField(exportRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(exportRepository, "fetchSize", 500);
+        ReflectionTestUtils.setField(controller, "exportRepository", exportRepository);
+        ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(controller, "bankUserDetails", new OwnerOnly());
+        ReflectionTestUtils.setField(controller, "flushEvery", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void exportsNdjsonNewestFirstWithIsoDates() throws IOException {
+        MockHttpServletResponse response = export(1, "ndjson");
+
+        assertThat(response.getContentType()).startsWith("application/x-ndjson");
+        String[] lines = response.getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode newest = objectMapper.readTree(lines[0]);
+        assertThat(newest.get("transactionId").asText()).isEqualTo("T2");
+        assertThat(newest.get("transactionDt").asText()).isEqualTo("2020-12-21");
+        assertThat(newest.get("transactionAmt").asInt()).isEqualTo(20);
+        assertThat(objectMapper.readTree(lines[1]).get("transactionDt").asText()).isEqualTo("2020-12-20");
+    }
+
+    @Test
+    void exportsCsvWithHeaderAndEscapedFields() throws IOException {
+        MockHttpServletResponse response = export(1, "csv");
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader("Content-Disposition")).contains("transactions.csv");
+        assertThat(response.getContentAsString()).isEqualTo(
+                "transaction_id,account_number,customer_id,transaction_dt,transaction_summary,transaction_type," +
+                        "transaction_amt,closing_balance,create_dt\r\n" +
+                        "T2,100,1,2020-12-21,\"Refund, \"\"Online\"\" Store\",Deposit,20,34520,2020-12-21\r\n" +
+                        "T1,100,1,2020-12-20,Coffee Shop,Withdrawal,30,34500,2020-12-20\r\n");
+    }
+
+    @Test
+    void rejectsTheIdOfAnotherCustomer() {
+        assertThatThrownBy(() -> export(2, "csv"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThatThrownBy(() -> export(1, "xml"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private MockHttpServletResponse export(int customerId, String format) throws IOException {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportTransactions(customer, format, new TestingAuthenticationToken(OWNER, "12345"), response);
+        return response;
+    }
+
+    private static class OwnerOnly extends BankUserDetails {
+
+        @Override
+        public UserDetails loadUserByUsername(String username) {
+            return new SecurityCustomer(new CustomerPrincipal(1, username, "hash", Collections.singletonList("ROLE_USER")));
+        }
+    }
+}
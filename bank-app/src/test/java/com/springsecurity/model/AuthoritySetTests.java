@@ -0,0 +1,44 @@
+package com.springsecurity.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthoritySetTests {
+
+    @Test
+    void sharesCanonicalAuthoritiesAndSets() {
+        AuthoritySet first = AuthorityRegistry.setOfNames(List.of("ROLE_USER", "ROLE_ADMIN"));
+        AuthoritySet second = AuthorityRegistry.setOfNames(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.asList()).containsExactly(AuthorityRegistry.authority("ROLE_USER"),
+                AuthorityRegistry.authority("ROLE_ADMIN"));
+        assertThat(first.asList().get(0)).isSameAs(AuthorityRegistry.authority("ROLE_USER"));
+    }
+
+    @Test
+    void checksMembershipWithBits() {
+        AuthoritySet user = AuthorityRegistry.setOfNames(List.of("ROLE_USER", "ROLE_USER"));
+        AuthoritySet custom = AuthorityRegistry.setOfNames(List.of("ROLE_TELLER"));
+
+        assertThat(user.asList()).hasSize(1);
+        assertThat(user.contains(AuthorityRegistry.authority("ROLE_USER"))).isTrue();
+        assertThat(user.contains(AuthorityRegistry.authority("ROLE_TELLER"))).isFalse();
+        assertThat(user.containsAny(AuthorityRegistry.setOfNames(List.of("ROLE_ADMIN", "ROLE_USER")))).isTrue();
+        assertThat(user.containsAny(custom)).isFalse();
+        assertThat(custom.containsAny(AuthoritySet.EMPTY)).isFalse();
+    }
+
+    @Test
+    void deserializesToCanonicalInstances() {
+        AuthoritySet set = AuthorityRegistry.setOfNames(List.of("ROLE_ROOT"));
+
+        Object copy = SerializationUtils.deserialize(SerializationUtils.serialize(set));
+
+        assertThat(copy).isSameAs(set);
+    }
+}
@@ -0,0 +1,78 @@
+package com.springsecurity.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CustomerChangeListenerTests.ChangedEmails.class)
+class CustomerChangeListenerTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChangedEmails changedEmails;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setName("Happy");
+        customer.setEmail("happy@example.com");
+        customer.setPwd("$2a$10$hash");
+        customer.setRole("user");
+        entityManager.persistAndFlush(customer);
+        changedEmails.emails.clear();
+    }
+
+    @Test
+    void publishesWhenThePasswordChanges() {
+        customer.setPwd("$2a$10$other");
+        entityManager.flush();
+
+        assertThat(changedEmails.emails).containsExactly("happy@example.com");
+    }
+
+    @Test
+    void publishesWhenAnAuthorityIsGrantedOrRevoked() {
+        Authority authority = new Authority();
+        authority.setName("ROLE_ADMIN");
+        authority.setCustomer(customer);
+        entityManager.persistAndFlush(authority);
+        entityManager.remove(authority);
+        entityManager.flush();
+
+        assertThat(changedEmails.emails).containsExactly("happy@example.com", "happy@example.com");
+    }
+
+    @Test
+    void publishesWhenTheCustomerIsDeleted() {
+        entityManager.remove(customer);
+        entityManager.flush();
+
+        assertThat(changedEmails.emails).containsExactly("happy@example.com");
+    }
+
+    @Component
+    static class ChangedEmails {
+
+        private final List<String> emails = new ArrayList<>();
+
+        @EventListener
+        public void onCustomerChanged(CustomerChangedEvent event) {
+            emails.add(event.getEmail());
+        }
+    }
+}
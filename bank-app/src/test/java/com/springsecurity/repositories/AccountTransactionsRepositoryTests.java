@@ -0,0 +1,83 @@
+package com.springsecurity.repositories;
+
+import com.springsecurity.model.AccountTransactionView;
+import com.springsecurity.model.AccountTransactions;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class AccountTransactionsRepositoryTests {
+
+    private static final Date DAY_1 = new Date(86_400_000L);
+
+    private static final Date DAY_2 = new Date(2 * 86_400_000L);
+
+    private static final Date END = new Date(Long.MAX_VALUE / 2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountTransactionsRepository accountTransactionsRepository;
+
+    @BeforeEach
+    void setUp() {
+        persist("T1", 1, DAY_1);
+        persist("T2", 1, DAY_2);
+        persist("T3", 1, DAY_2);
+        persist("T4", 1, DAY_2);
+        persist("X1", 2, DAY_2);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walksHistoryInKeysetOrderAcrossTiedDates() {
+        List<AccountTransactionView> first = page(new Date(0), END, "", 2);
+        assertThat(ids(first)).containsExactly("T4", "T3");
+
+        AccountTransactionView last = first.get(1);
+        List<AccountTransactionView> second = page(new Date(0), last.getTransactionDt(), last.getTransactionId(), 2);
+        assertThat(ids(second)).containsExactly("T2", "T1");
+    }
+
+    @Test
+    void honoursLowerDateBound() {
+        assertThat(ids(page(DAY_2, END, "", 10))).containsExactly("T4", "T3", "T2");
+    }
+
+    @Test
+    void pageDoesNotEnterThePersistenceContext() {
+        assertThat(page(new Date(0), END, "", 10)).hasSize(4);
+
+        SessionImplementor session = entityManager.getEntityManager().unwrap(SessionImplementor.class);
+        assertThat(session.getPersistenceContext().getNumberOfManagedEntities()).isZero();
+    }
+
+    private List<AccountTransactionView> page(Date from, Date beforeDt, String beforeId, int size) {
+        return accountTransactionsRepository.findPageByCustomerId(1, from, beforeDt, beforeId, PageRequest.of(0, size));
+    }
+
+    private static List<String> ids(List<AccountTransactionView> transactions) {
+        return transactions.stream().map(AccountTransactionView::getTransactionId).collect(Collectors.toList());
+    }
+
+    private void persist(String id, int customerId, Date transactionDt) {
+        AccountTransactions transaction = new AccountTransactions();
+        transaction.setTransactionId(id);
+        transaction.setCustomerId(customerId);
+        transaction.setTransactionDt(transactionDt);
+        entityManager.persist(transaction);
+    }
+}
@@ -0,0 +1,55 @@
+package com.springsecurity.repositories;
+
+import com.springsecurity.model.Contact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContactSpoolTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsSubmissionsUntilTheyAreWritten() {
+        ContactSpool spool = new ContactSpool(directory.resolve("spool/contacts.jsonl"));
+        spool.append(List.of(contact("C1"), contact("C2")));
+        spool.append(List.of(contact("C3")));
+
+        List<String> written = new ArrayList<>();
+        assertThat(spool.replay(contact -> {
+            if (contact.getContactId().equals("C2")) {
+                return false;
+            }
+            written.add(contact.getContactId());
+            return true;
+        })).isEqualTo(2);
+        assertThat(written).containsExactly("C1", "C3");
+        assertThat(spool.isEmpty()).isFalse();
+
+        List<Contact> replayed = new ArrayList<>();
+        assertThat(spool.replay(replayed::add)).isEqualTo(1);
+        assertThat(replayed).extracting(Contact::getContactId).containsExactly("C2");
+        assertThat(replayed.get(0).getMessage()).isEqualTo("message C2");
+        assertThat(replayed.get(0).getCreateDt()).isEqualTo(new Date(1_000L));
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(spool.replay(contact -> true)).isZero();
+    }
+
+    private static Contact contact(String id) {
+        Contact contact = new Contact();
+        contact.setContactId(id);
+        contact.setContactName("Happy");
+        contact.setContactEmail("happy@example.com");
+        contact.setSubject("Help");
+        contact.setMessage("message " + id);
+        contact.setCreateDt(new Date(1_000L));
+        return contact;
+    }
+}
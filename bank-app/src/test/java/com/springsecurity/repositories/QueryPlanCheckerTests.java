@@ -0,0 +1,80 @@
+package com.springsecurity.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({QueryPlanChecker.class, QueryCapture.class})
+class QueryPlanCheckerTests {
+
+    @Autowired
+    private QueryPlanChecker queryPlanChecker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void migratedSchemaServesEveryQueryFromAnIndex() {
+        assertThat(queryPlanChecker.check()).isEmpty();
+    }
+
+    @Test
+    void reportsQueryWhoseIndexIsMissing() {
+        jdbcTemplate.execute("drop index idx_loans_customer_start_dt");
+        try {
+            assertThat(queryPlanChecker.check()).containsExactly("LoanRepository.findByCustomerIdOrderByStartDtDesc");
+        } finally {
+            jdbcTemplate.execute("create index idx_loans_customer_start_dt on loans (customer_id, start_dt desc)");
+        }
+    }
+
+    @Test
+    void explainsTheBoundParametersOfAPagedQuery() {
+        jdbcTemplate.execute("drop index idx_account_transactions_customer_dt");
+        try {
+            assertThat(queryPlanChecker.check()).containsExactlyInAnyOrder(
+                    "AccountTransactionsRepository.findByCustomerIdOrderByTransactionDtDesc",
+                    "AccountTransactionsRepository.findPageByCustomerId",
+                    "AccountTransactionsExportRepository.forEachByCustomerId");
+        } finally {
+            jdbcTemplate.execute("create index idx_account_transactions_customer_dt on account_transactions " +
+                    "(customer_id, transaction_dt desc, transaction_id desc)");
+        }
+    }
+
+    @Test
+    void explainsEveryRepositoryQueryMethod() {
+        Set<String> queryMethods = new TreeSet<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                queryMethods.add(information.getRepositoryInterface().getSimpleName() + "." + method.getName());
+            }
+        }
+        queryMethods.removeAll(QueryPlanChecker.NOT_CHECKED);
+        queryMethods.add("AccountTransactionsExportRepository.forEachByCustomerId");
+
+        Map<String, List<Map<String, Object>>> plans = queryPlanChecker.explainAll();
+
+        assertThat(plans.keySet()).containsExactlyInAnyOrderElementsOf(queryMethods);
+        assertThat(plans.values()).allSatisfy(plan -> assertThat(plan).isNotEmpty());
+    }
+}